@@ -0,0 +1,60 @@
+package com.automatas.dfa.bench;
+
+import com.automatas.dfa.engine.BatchEvaluator;
+import com.automatas.dfa.model.DFA;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Full batch evaluation of a strings list, serial and through both {@link BatchEvaluator} modes. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchBenchmark {
+    @Param({"1000", "100000"})
+    public int count;
+
+    @Param({"256"})
+    public int maxLength;
+
+    private DFA dfa;
+    private List<String> inputs;
+    private BatchEvaluator evaluator;
+
+    @Setup
+    public void setup() {
+        dfa = Definitions.dfa(100, Definitions.SEED);
+        dfa.getCompiled();
+        inputs = Definitions.inputs(count, maxLength, Definitions.SEED);
+        evaluator = new BatchEvaluator();
+    }
+
+    @Benchmark
+    public void serial(Blackhole bh) {
+        for (String s : inputs) bh.consume(dfa.accepts(s));
+    }
+
+    @Benchmark
+    public long parallel() {
+        LongAdder acceptedCount = new LongAdder();
+        evaluator.evaluate(dfa, inputs, (start, accepted) -> {
+            for (boolean a : accepted) if (a) acceptedCount.increment();
+        }, () -> false);
+        return acceptedCount.sum();
+    }
+
+    @Benchmark
+    public long shared() {
+        LongAdder acceptedCount = new LongAdder();
+        evaluator.evaluateShared(dfa, inputs, (rows, accepted) -> {
+            for (boolean a : accepted) if (a) acceptedCount.increment();
+        }, () -> false);
+        return acceptedCount.sum();
+    }
+}
@@ -0,0 +1,42 @@
+package com.automatas.dfa.bench;
+
+import com.automatas.dfa.model.DFA;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/** Measures the {@link DFA} constructor (deep copy and validation) and its compilation. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConstructBenchmark {
+    @Param({"10", "1000", "100000"})
+    public int states;
+
+    private Set<String> symbols;
+    private Set<String> stateSet;
+    private Set<String> finals;
+    private Map<String, Map<String, String>> transitions;
+
+    @Setup
+    public void setup() {
+        symbols = new LinkedHashSet<>(Arrays.asList(Definitions.SYMBOLS));
+        stateSet = Definitions.states(states);
+        finals = Definitions.finals(states);
+        transitions = Definitions.transitions(states, Definitions.SEED);
+    }
+
+    @Benchmark
+    public DFA construct() {
+        return new DFA(symbols, stateSet, "q0", finals, transitions);
+    }
+
+    @Benchmark
+    public Object constructAndCompile() {
+        return new DFA(symbols, stateSet, "q0", finals, transitions).getCompiled();
+    }
+}
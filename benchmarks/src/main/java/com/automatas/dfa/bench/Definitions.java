@@ -0,0 +1,89 @@
+package com.automatas.dfa.bench;
+
+import com.automatas.dfa.model.DFA;
+
+import java.util.*;
+
+/**
+ * Generates random, fully specified DFA definitions and inputs of a given size
+ * for the benchmarks. A fixed seed keeps runs comparable between releases.
+ */
+final class Definitions {
+    static final long SEED = 42L;
+    static final String[] SYMBOLS = {"a", "b", "c", "d"};
+
+    private Definitions() {}
+
+    /** Text definition in the "from,sym->to" format with {@code strings} sample strings. */
+    static String text(int states, int strings, long seed) {
+        Random rnd = new Random(seed);
+        StringBuilder sb = new StringBuilder();
+        sb.append("symbols: ").append(String.join(",", SYMBOLS)).append('\n');
+        sb.append("states: ");
+        for (int i = 0; i < states; i++) {
+            if (i > 0) sb.append(',');
+            sb.append('q').append(i);
+        }
+        sb.append('\n');
+        sb.append("start: q0\n");
+        sb.append("finals: ");
+        boolean first = true;
+        for (int i = 0; i < states; i++) {
+            if (i % 3 != 0) continue;
+            if (!first) sb.append(',');
+            sb.append('q').append(i);
+            first = false;
+        }
+        sb.append('\n');
+        sb.append("transitions:\n");
+        for (int i = 0; i < states; i++) {
+            for (String sym : SYMBOLS) {
+                sb.append('q').append(i).append(',').append(sym).append("->q").append(rnd.nextInt(states)).append('\n');
+            }
+        }
+        sb.append("strings:\n");
+        for (int i = 0; i < strings; i++) sb.append(input(8 + rnd.nextInt(24), rnd)).append('\n');
+        return sb.toString();
+    }
+
+    static Map<String, Map<String, String>> transitions(int states, long seed) {
+        Random rnd = new Random(seed);
+        Map<String, Map<String, String>> t = new LinkedHashMap<>();
+        for (int i = 0; i < states; i++) {
+            Map<String, String> row = new LinkedHashMap<>();
+            for (String sym : SYMBOLS) row.put(sym, "q" + rnd.nextInt(states));
+            t.put("q" + i, row);
+        }
+        return t;
+    }
+
+    static Set<String> states(int states) {
+        Set<String> s = new LinkedHashSet<>();
+        for (int i = 0; i < states; i++) s.add("q" + i);
+        return s;
+    }
+
+    static Set<String> finals(int states) {
+        Set<String> s = new LinkedHashSet<>();
+        for (int i = 0; i < states; i += 3) s.add("q" + i);
+        return s;
+    }
+
+    static DFA dfa(int states, long seed) {
+        return new DFA(new LinkedHashSet<>(Arrays.asList(SYMBOLS)), states(states), "q0",
+                finals(states), transitions(states, seed));
+    }
+
+    static String input(int length, Random rnd) {
+        char[] c = new char[length];
+        for (int i = 0; i < length; i++) c[i] = SYMBOLS[rnd.nextInt(SYMBOLS.length)].charAt(0);
+        return new String(c);
+    }
+
+    static List<String> inputs(int count, int maxLength, long seed) {
+        Random rnd = new Random(seed);
+        List<String> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) list.add(input(1 + rnd.nextInt(maxLength), rnd));
+        return list;
+    }
+}
@@ -0,0 +1,30 @@
+package com.automatas.dfa.bench;
+
+import com.automatas.dfa.parser.DFAParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** Measures {@link DFAParser#parseAll(String)} on generated definitions of increasing size. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+    @Param({"10", "1000", "100000"})
+    public int states;
+
+    private String text;
+
+    @Setup
+    public void setup() {
+        text = Definitions.text(states, 100, Definitions.SEED);
+    }
+
+    @Benchmark
+    public DFAParser.ParseResult parseAll() {
+        return DFAParser.parseAll(text);
+    }
+}
@@ -0,0 +1,54 @@
+package com.automatas.dfa.bench;
+
+import com.automatas.dfa.engine.Matcher;
+import com.automatas.dfa.engine.MatcherCompiler;
+import com.automatas.dfa.model.DFA;
+import com.automatas.dfa.model.DFASimulation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Single-string simulation: table fast path, generated matcher and the path-recording stepper. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimulateBenchmark {
+    @Param({"16", "1024", "65536", "1048576"})
+    public int length;
+
+    @Param({"100"})
+    public int states;
+
+    private DFA dfa;
+    private Matcher generated;
+    private String input;
+
+    @Setup
+    public void setup() {
+        dfa = Definitions.dfa(states, Definitions.SEED);
+        dfa.getCompiled();
+        generated = MatcherCompiler.compile(dfa);
+        input = Definitions.input(length, new Random(Definitions.SEED));
+    }
+
+    @Benchmark
+    public boolean accepts() {
+        return dfa.accepts(input);
+    }
+
+    @Benchmark
+    public boolean generated() {
+        return generated.accepts(input);
+    }
+
+    @Benchmark
+    public boolean stepper() {
+        DFASimulation sim = new DFASimulation(dfa, input);
+        while (sim.canStepForward()) sim.stepForward();
+        return sim.isAccepted();
+    }
+}
@@ -1,10 +1,19 @@
 package com.automatas.dfa;
 
 import javax.swing.*;
+import com.automatas.dfa.cli.BatchCli;
 import com.automatas.dfa.ui.MainFrame;
 
 public class Main {
     public static void main(String[] args) {
+        // Modo por lotes sin interfaz gráfica: no debe cargar AWT/Swing
+        if (BatchCli.isBatchInvocation(args)) {
+            System.exit(BatchCli.run(args));
+        }
+        startGui();
+    }
+
+    private static void startGui() {
         try {
             for (UIManager.LookAndFeelInfo info : UIManager.getInstalledLookAndFeels()) {
                 if ("Nimbus".equals(info.getName())) {
@@ -0,0 +1,389 @@
+package com.automatas.dfa.cli;
+
+import com.automatas.dfa.engine.DFAMinimizer;
+import com.automatas.dfa.engine.LazyDFA;
+import com.automatas.dfa.engine.Matcher;
+import com.automatas.dfa.engine.MatcherCompiler;
+import com.automatas.dfa.engine.ParallelRunner;
+import com.automatas.dfa.model.DFA;
+import com.automatas.dfa.model.NFA;
+import com.automatas.dfa.model.Utf8;
+import com.automatas.dfa.parser.DFAParser;
+import com.automatas.dfa.parser.MappedCorpusReader;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.*;
+
+/**
+ * Headless batch mode: evaluates one input string per line against a DFA
+ * definition and writes "cadena&lt;TAB&gt;Aceptada|Rechazada" per line.
+ * Never touches AWT/Swing, so it can run on servers without a display.
+ *
+ * <pre>
+ * java -jar automatasEddy.jar --batch definicion.txt [--input cadenas.txt|-]
+ *      [--output resultados.txt|-] [--threads N] [--minimize] [--codegen] [--export afd.txt]
+ * </pre>
+ */
+public class BatchCli {
+    private static final int LINES_PER_CHUNK = 4096;
+
+    private File definition;
+    private String input = "-";
+    private boolean inputGiven;
+    private boolean minimize;
+    private boolean codegen;
+    private File export;
+    private String output = "-";
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /** Returns {@code true} if the arguments request the headless mode. */
+    public static boolean isBatchInvocation(String[] args) {
+        for (String a : args) {
+            if ("--batch".equals(a) || "-b".equals(a)) return true;
+        }
+        return false;
+    }
+
+    /** Runs the CLI and returns the process exit code. */
+    public static int run(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        BatchCli cli = new BatchCli();
+        try {
+            cli.parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            printUsage();
+            return 2;
+        }
+        try {
+            cli.execute();
+            return 0;
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("Uso: --batch <definicion> [--input <archivo>|-] [--output <archivo>|-] [--threads N]"
+                + " [--minimize] [--codegen] [--export <archivo>]");
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            switch (a) {
+                case "--batch", "-b" -> definition = new File(value(args, ++i, a));
+                case "--input", "-i" -> { input = value(args, ++i, a); inputGiven = true; }
+                case "--minimize", "-m" -> minimize = true;
+                case "--codegen", "-g" -> codegen = true;
+                case "--export", "-e" -> export = new File(value(args, ++i, a));
+                case "--output", "-o" -> output = value(args, ++i, a);
+                case "--threads", "-t" -> {
+                    String v = value(args, ++i, a);
+                    try {
+                        threads = Integer.parseInt(v);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Número de hilos inválido: " + v);
+                    }
+                    if (threads < 1) throw new IllegalArgumentException("Número de hilos inválido: " + v);
+                }
+                default -> throw new IllegalArgumentException("Opción desconocida: " + a);
+            }
+        }
+        if (definition == null) throw new IllegalArgumentException("Falta el archivo de definición (--batch)");
+    }
+
+    private static String value(String[] args, int i, String option) {
+        if (i >= args.length) throw new IllegalArgumentException("Falta el valor de " + option);
+        return args[i];
+    }
+
+    private void execute() throws IOException {
+        DFA dfa = null;
+        NFA nfa = null;
+        List<String> strings = List.of();
+        if (export == null && DFAParser.hasFreshCompiled(definition)) {
+            // sin exportación no hacen falta las cadenas: se usa el binario compilado
+            dfa = DFAParser.loadFile(definition);
+        } else {
+            DFAParser.ParseResult parsed = DFAParser.parseFileAll(definition);
+            strings = parsed.getStrings();
+            if (parsed.getNfa() != null && !minimize && !codegen && export == null) {
+                // AFN o regex: determinización perezosa con caché acotada, sin construir el AFD completo
+                nfa = parsed.getNfa();
+            } else {
+                dfa = parsed.getDfa();
+                if (export == null && parsed.getNfa() == null) DFAParser.saveCompiled(dfa, definition);
+            }
+        }
+        if (minimize) {
+            int before = dfa.getStates().size();
+            dfa = DFAMinimizer.minimize(dfa).getDfa();
+            System.err.printf("AFD minimizado: %d -> %d estados%n", before, dfa.getStates().size());
+        }
+        if (export != null) {
+            DFAParser.saveTextToFile(DFAParser.toText(dfa, strings), export);
+            // solo exportar si no se pidió evaluar cadenas explícitamente
+            if (!inputGiven) return;
+        }
+        Matcher matcher = null;
+        if (codegen) {
+            matcher = MatcherCompiler.generate(dfa);
+            System.err.println(matcher != null ? "Reconocedor generado como clase JVM"
+                    : !dfa.getCompiled().isCharAlphabet() ? "Símbolos de varios caracteres o fuera del BMP: se usa la tabla"
+                    : "AFD demasiado grande para generar código: se usa la tabla");
+        }
+        // un solo pool de --threads hilos: bloques de líneas y líneas enormes partidas en trozos
+        ForkJoinPool workers = new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            t.setName("afd-batch-" + t.getPoolIndex());
+            return t;
+        }, null, false);
+        ParallelRunner longLines = new ParallelRunner(workers, ParallelRunner.DEFAULT_MIN_CHUNK);
+        Acceptor evaluated = nfa != null ? new LazyAcceptor(nfa)
+                : matcher != null ? new GeneratedAcceptor(dfa, longLines, matcher) : new DfaAcceptor(dfa, longLines);
+        long startNanos = System.nanoTime();
+
+        Pipeline pipeline;
+        try (OutputStream out = openOutput()) {
+            pipeline = new Pipeline(workers, threads * 2, out);
+            if ("-".equals(input)) {
+                readStream(evaluated, pipeline);
+            } else {
+                // Archivo: recorrido por ventanas mapeadas en memoria, sin decodificar a String
+                new MappedCorpusReader(Path.of(input)).forEachBatch(LINES_PER_CHUNK,
+                        batch -> pipeline.submit(() -> Chunk.evaluate(evaluated, batch)));
+            }
+            pipeline.drain();
+        } finally {
+            workers.shutdownNow();
+        }
+
+        long total = pipeline.total;
+        long accepted = pipeline.accepted;
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.err.printf(Locale.ROOT, "Procesadas %d cadenas (%d aceptadas, %d rechazadas) en %.3f s (%.0f cadenas/s)%n",
+                total, accepted, total - accepted, seconds, seconds > 0 ? total / seconds : 0.0);
+    }
+
+    private void readStream(Acceptor dfa, Pipeline pipeline) throws IOException {
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16)) {
+            List<String> lines = new ArrayList<>(LINES_PER_CHUNK);
+            String line;
+            while ((line = in.readLine()) != null) {
+                lines.add(line);
+                if (lines.size() == LINES_PER_CHUNK) {
+                    List<String> batch = lines;
+                    pipeline.submit(() -> Chunk.evaluate(dfa, batch));
+                    lines = new ArrayList<>(LINES_PER_CHUNK);
+                }
+            }
+            if (!lines.isEmpty()) {
+                List<String> batch = lines;
+                pipeline.submit(() -> Chunk.evaluate(dfa, batch));
+            }
+        }
+    }
+
+    /**
+     * Bounded queue of in-flight chunks: keeps output in input order and caps the
+     * amount of pending work (and mapped windows) held in memory.
+     */
+    private static final class Pipeline {
+        private final ExecutorService workers;
+        private final int maxPending;
+        private final OutputStream out;
+        private final ArrayDeque<Future<Chunk>> pending = new ArrayDeque<>();
+        long total;
+        long accepted;
+
+        Pipeline(ExecutorService workers, int maxPending, OutputStream out) {
+            this.workers = workers;
+            this.maxPending = maxPending;
+            this.out = out;
+        }
+
+        void submit(Callable<Chunk> task) throws IOException {
+            pending.add(workers.submit(task));
+            if (pending.size() >= maxPending) writeNext();
+        }
+
+        void drain() throws IOException {
+            while (!pending.isEmpty()) writeNext();
+        }
+
+        private void writeNext() throws IOException {
+            Chunk c;
+            try {
+                c = pending.poll().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Procesamiento interrumpido");
+            } catch (ExecutionException e) {
+                throw new IOException(e.getCause());
+            }
+            out.write(c.data, 0, c.size);
+            total += c.lines;
+            accepted += c.accepted;
+        }
+    }
+
+    private OutputStream openOutput() throws IOException {
+        OutputStream os = "-".equals(output) ? new FilterOutputStream(System.out) {
+            @Override public void close() throws IOException { flush(); } // no cerrar stdout
+        } : new FileOutputStream(output);
+        return new BufferedOutputStream(os, 1 << 16);
+    }
+
+    /** Accept check shared by the workers. */
+    private interface Acceptor {
+        boolean accepts(String line);
+
+        boolean accepts(ByteBuffer buffer, int offset, int length);
+    }
+
+    private static class DfaAcceptor implements Acceptor {
+        static final int LONG_LINE = 2 * ParallelRunner.DEFAULT_MIN_CHUNK;
+
+        final DFA dfa;
+        // líneas enormes: simulación paralela por bloques en el pool de los workers
+        final ParallelRunner longLines;
+
+        DfaAcceptor(DFA dfa, ParallelRunner longLines) {
+            this.dfa = dfa;
+            this.longLines = longLines;
+        }
+
+        @Override
+        public boolean accepts(String line) {
+            return line.length() >= LONG_LINE ? longLines.accepts(dfa, line) : dfa.accepts(line);
+        }
+
+        @Override
+        public boolean accepts(ByteBuffer buffer, int offset, int length) {
+            return length >= LONG_LINE ? longLines.accepts(dfa, buffer, offset, length) : dfa.accepts(buffer, offset, length);
+        }
+    }
+
+    /**
+     * Generated matcher for ordinary lines; UTF-8 lines are decoded into a per-thread
+     * char buffer first. Huge lines still go to the parallel table runner.
+     */
+    private static final class GeneratedAcceptor extends DfaAcceptor {
+        private final Matcher matcher;
+        private final ThreadLocal<char[]> chars = ThreadLocal.withInitial(() -> new char[256]);
+
+        GeneratedAcceptor(DFA dfa, ParallelRunner longLines, Matcher matcher) {
+            super(dfa, longLines);
+            this.matcher = matcher;
+        }
+
+        @Override
+        public boolean accepts(String line) {
+            return line.length() >= LONG_LINE ? super.accepts(line) : matcher.accepts(line);
+        }
+
+        @Override
+        public boolean accepts(ByteBuffer buffer, int offset, int length) {
+            if (length >= LONG_LINE) return super.accepts(buffer, offset, length);
+            char[] c = chars.get();
+            if (c.length < length) chars.set(c = new char[Math.max(length, c.length * 2)]);
+            int n = 0;
+            for (int i = offset, end = offset + length; i < end; ) {
+                int b = buffer.get(i);
+                int len = b >= 0 ? 1 : Utf8.sequenceLength(b);
+                if (len == 0 || i + len > end) return false;
+                int cp = len == 1 ? b : Utf8.decode(buffer, i, len);
+                // igual que la tabla: secuencias inválidas o fuera del BMP no pertenecen al alfabeto
+                if (cp < 0 || cp > Character.MAX_VALUE) return false;
+                c[n++] = (char) cp;
+                i += len;
+            }
+            return matcher.accepts(CharBuffer.wrap(c, 0, n));
+        }
+    }
+
+    /** One {@link LazyDFA} (and so one bounded cache) per worker thread. */
+    private static final class LazyAcceptor implements Acceptor {
+        private final ThreadLocal<LazyDFA> lazy;
+
+        LazyAcceptor(NFA nfa) { this.lazy = ThreadLocal.withInitial(() -> new LazyDFA(nfa)); }
+
+        @Override
+        public boolean accepts(String line) {
+            return lazy.get().accepts(line);
+        }
+
+        @Override
+        public boolean accepts(ByteBuffer buffer, int offset, int length) {
+            return lazy.get().accepts(buffer, offset, length);
+        }
+    }
+
+    /** Results of one block of lines, already rendered as UTF-8 output. */
+    private static final class Chunk {
+        private static final byte[] ACCEPTED = "\tAceptada\n".getBytes(StandardCharsets.UTF_8);
+        private static final byte[] REJECTED = "\tRechazada\n".getBytes(StandardCharsets.UTF_8);
+
+        byte[] data = new byte[1 << 12];
+        int size;
+        int lines;
+        int accepted;
+
+        static Chunk evaluate(Acceptor dfa, List<String> batch) {
+            Chunk c = new Chunk();
+            for (String line : batch) {
+                boolean ok = dfa.accepts(line);
+                byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+                c.append(bytes, ok);
+            }
+            return c;
+        }
+
+        static Chunk evaluate(Acceptor dfa, MappedCorpusReader.LineBatch batch) {
+            Chunk c = new Chunk();
+            ByteBuffer buf = batch.buffer();
+            for (int i = 0; i < batch.size(); i++) {
+                int off = batch.offset(i);
+                int len = batch.length(i);
+                boolean ok = dfa.accepts(buf, off, len);
+                c.ensure(len + REJECTED.length);
+                buf.get(off, c.data, c.size, len);
+                c.size += len;
+                c.appendResult(ok);
+            }
+            return c;
+        }
+
+        private void append(byte[] line, boolean ok) {
+            ensure(line.length + REJECTED.length);
+            System.arraycopy(line, 0, data, size, line.length);
+            size += line.length;
+            appendResult(ok);
+        }
+
+        private void appendResult(boolean ok) {
+            byte[] r = ok ? ACCEPTED : REJECTED;
+            System.arraycopy(r, 0, data, size, r.length);
+            size += r.length;
+            lines++;
+            if (ok) accepted++;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + extra));
+            }
+        }
+    }
+}
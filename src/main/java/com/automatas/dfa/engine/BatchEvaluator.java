@@ -0,0 +1,297 @@
+package com.automatas.dfa.engine;
+
+import com.automatas.dfa.model.CompiledDFA;
+import com.automatas.dfa.model.DFA;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Evaluates a list of input strings against a {@link DFA} in parallel on a
+ * {@link ForkJoinPool}. Results are delivered in contiguous chunks so callers
+ * (e.g. the Swing table) can publish them with one event per chunk.
+ * <p>
+ * {@link #evaluateShared} walks the automaton over an implicit trie of the
+ * inputs instead, so shared prefixes are stepped once and duplicates share
+ * one result; its results arrive grouped by prefix rather than by position.
+ */
+public class BatchEvaluator {
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    /** Receives the results of {@code accepted.length} inputs starting at {@code start}. */
+    public interface ChunkListener {
+        void onChunk(int start, boolean[] accepted);
+    }
+
+    /** Receives scattered results: {@code accepted[i]} belongs to input {@code rows[i]}. */
+    public interface RowsListener {
+        void onRows(int[] rows, boolean[] accepted);
+    }
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public BatchEvaluator() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public BatchEvaluator(ForkJoinPool pool, int chunkSize) {
+        if (chunkSize <= 0) throw new IllegalArgumentException("Tamaño de bloque inválido: " + chunkSize);
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Evaluates every input and blocks until done or cancelled. The listener may be
+     * called concurrently from pool threads, in any order.
+     *
+     * @return {@code false} if the run was cancelled before finishing
+     */
+    public boolean evaluate(DFA dfa, List<? extends CharSequence> inputs,
+                            ChunkListener listener, BooleanSupplier cancelled) {
+        return evaluate((Matcher) dfa::accepts, inputs, listener, cancelled);
+    }
+
+    /** Same as {@link #evaluate(DFA, List, ChunkListener, BooleanSupplier)} with any matcher, e.g. a generated one. */
+    public boolean evaluate(Matcher matcher, List<? extends CharSequence> inputs,
+                            ChunkListener listener, BooleanSupplier cancelled) {
+        pool.invoke(new Task(matcher, inputs, 0, inputs.size(), listener, cancelled));
+        return !cancelled.getAsBoolean();
+    }
+
+    /**
+     * Like {@link #evaluate} but each distinct prefix of the inputs is stepped
+     * only once. The inputs are partitioned three ways on the character at the
+     * current depth (multikey quicksort); every equal-character group is one
+     * trie edge and advances the automaton by a single step for all of its
+     * strings, and a run of characters shared by the whole group is stepped
+     * in one go before partitioning. Groups that reach a rejecting or
+     * accept-absorbing state are decided without stepping further. Large
+     * groups are forked to the pool. Automata whose symbols are not single BMP
+     * chars are evaluated one input at a time, as {@link #evaluate} does.
+     *
+     * @return {@code false} if the run was cancelled before finishing
+     */
+    public boolean evaluateShared(DFA dfa, List<? extends CharSequence> inputs,
+                                  RowsListener listener, BooleanSupplier cancelled) {
+        CompiledDFA c = dfa.getCompiled();
+        if (!c.isCharAlphabet()) {
+            // el trie de prefijos avanza carácter a carácter
+            return evaluate(dfa, inputs, (start, accepted) -> {
+                int[] rows = new int[accepted.length];
+                for (int i = 0; i < rows.length; i++) rows[i] = start + i;
+                listener.onRows(rows, accepted);
+            }, cancelled);
+        }
+        int n = inputs.size();
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        pool.invoke(new SharedTask(c, inputs, order, new int[n], 0, n, 0, c.getStartState(), listener, cancelled));
+        return !cancelled.getAsBoolean();
+    }
+
+    private class Task extends RecursiveAction {
+        private final Matcher dfa;
+        private final List<? extends CharSequence> inputs;
+        private final int from;
+        private final int to;
+        private final ChunkListener listener;
+        private final BooleanSupplier cancelled;
+
+        Task(Matcher dfa, List<? extends CharSequence> inputs, int from, int to,
+             ChunkListener listener, BooleanSupplier cancelled) {
+            this.dfa = dfa;
+            this.inputs = inputs;
+            this.from = from;
+            this.to = to;
+            this.listener = listener;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected void compute() {
+            if (cancelled.getAsBoolean()) return;
+            if (to - from > chunkSize) {
+                // dividir en bloques alineados a chunkSize
+                int mid = from + ((to - from) / 2 / chunkSize) * chunkSize;
+                if (mid == from) mid = from + chunkSize;
+                invokeAll(new Task(dfa, inputs, from, mid, listener, cancelled),
+                        new Task(dfa, inputs, mid, to, listener, cancelled));
+                return;
+            }
+            boolean[] accepted = new boolean[to - from];
+            for (int i = from; i < to; i++) {
+                if ((i & 63) == 0 && cancelled.getAsBoolean()) return;
+                accepted[i - from] = dfa.accepts(inputs.get(i));
+            }
+            listener.onChunk(from, accepted);
+        }
+    }
+
+    private class SharedTask extends RecursiveAction {
+        private final CompiledDFA dfa;
+        private final List<? extends CharSequence> inputs;
+        // order[lo, hi) son índices de entradas; keys[j] es el carácter de order[j] en la profundidad actual
+        private final int[] order;
+        private final int[] keys;
+        private final int lo;
+        private final int hi;
+        private final int depth;
+        private final int state;
+        private final RowsListener listener;
+        private final BooleanSupplier cancelled;
+
+        // pila de rangos pendientes: (lo, hi, depth, state, keysValid)
+        private int[] stack = new int[5 * 16];
+        private int top;
+        private int[] outRows;
+        private boolean[] outAccepted;
+        private int outSize;
+
+        SharedTask(CompiledDFA dfa, List<? extends CharSequence> inputs, int[] order, int[] keys,
+                   int lo, int hi, int depth, int state, RowsListener listener, BooleanSupplier cancelled) {
+            this.dfa = dfa;
+            this.inputs = inputs;
+            this.order = order;
+            this.keys = keys;
+            this.lo = lo;
+            this.hi = hi;
+            this.depth = depth;
+            this.state = state;
+            this.listener = listener;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected void compute() {
+            if (lo >= hi) return;
+            outRows = new int[Math.min(chunkSize, hi - lo)];
+            outAccepted = new boolean[outRows.length];
+            List<SharedTask> forked = new ArrayList<>();
+            push(lo, hi, depth, state, false);
+            int pops = 0;
+            while (top > 0) {
+                if ((++pops & 63) == 0 && cancelled.getAsBoolean()) break;
+                top -= 5;
+                int from = stack[top], to = stack[top + 1], d = stack[top + 2], s = stack[top + 3];
+                boolean keysValid = stack[top + 4] != 0;
+
+                if (decided(from, to, d, s)) continue;
+                if (to - from == 1) {
+                    CharSequence in = inputs.get(order[from]);
+                    emit(order[from], dfa.isAccept(dfa.runFrom(s, in, d, in.length())));
+                    continue;
+                }
+                if (to - from > chunkSize && (from != lo || to != hi)) {
+                    SharedTask t = new SharedTask(dfa, inputs, order, keys, from, to, d, s, listener, cancelled);
+                    t.fork();
+                    forked.add(t);
+                    continue;
+                }
+
+                // compresión de caminos: avanzar de una vez por el prefijo común de todo el grupo
+                int common = commonPrefix(from, to, d);
+                if (common > d) {
+                    s = dfa.runFrom(s, inputs.get(order[from]), d, common);
+                    d = common;
+                    keysValid = false;
+                    if (decided(from, to, d, s)) continue;
+                }
+                if (!keysValid) {
+                    for (int j = from; j < to; j++) {
+                        CharSequence in = inputs.get(order[j]);
+                        keys[j] = d < in.length() ? in.charAt(d) : -1;
+                    }
+                }
+                int pivot = median(keys[from], keys[(from + to) >>> 1], keys[to - 1]);
+                // partición de Dijkstra: [from, lt) < pivot, [lt, gt) == pivot, [gt, to) > pivot
+                int lt = from, i = from, gt = to;
+                while (i < gt) {
+                    int k = keys[i];
+                    if (k < pivot) swap(lt++, i++);
+                    else if (k > pivot) swap(i, --gt);
+                    else i++;
+                }
+                if (from < lt) push(from, lt, d, s, true);
+                if (gt < to) push(gt, to, d, s, true);
+                if (pivot < 0) {
+                    // cadenas que terminan aquí (incluidos los duplicados): mismo resultado
+                    boolean accepted = dfa.isAccept(s);
+                    for (int j = lt; j < gt; j++) emit(order[j], accepted);
+                } else {
+                    push(lt, gt, d + 1, dfa.step(s, (char) pivot), false);
+                }
+            }
+            flush();
+            for (SharedTask t : forked) t.join();
+        }
+
+        /**
+         * Emits the whole group if {@code s} already decides it: rejecting states
+         * reject everything, accept-absorbing ones accept what stays in the alphabet.
+         */
+        private boolean decided(int from, int to, int d, int s) {
+            if (dfa.isRejecting(s)) {
+                for (int j = from; j < to; j++) emit(order[j], false);
+                return true;
+            }
+            if (dfa.isAcceptAbsorbing(s)) {
+                for (int j = from; j < to; j++) {
+                    CharSequence in = inputs.get(order[j]);
+                    emit(order[j], dfa.inAlphabet(in, d, in.length()));
+                }
+                return true;
+            }
+            return false;
+        }
+
+        /** Length of the longest common prefix of order[from, to), knowing they share the first d chars. */
+        private int commonPrefix(int from, int to, int d) {
+            CharSequence first = inputs.get(order[from]);
+            int common = first.length();
+            for (int j = from + 1; j < to && common > d; j++) {
+                CharSequence in = inputs.get(order[j]);
+                int end = Math.min(common, in.length());
+                int x = d;
+                while (x < end && in.charAt(x) == first.charAt(x)) x++;
+                common = x;
+            }
+            return common;
+        }
+
+        private void push(int from, int to, int d, int s, boolean keysValid) {
+            if (top + 5 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+            stack[top] = from;
+            stack[top + 1] = to;
+            stack[top + 2] = d;
+            stack[top + 3] = s;
+            stack[top + 4] = keysValid ? 1 : 0;
+            top += 5;
+        }
+
+        private void swap(int a, int b) {
+            int o = order[a]; order[a] = order[b]; order[b] = o;
+            int k = keys[a]; keys[a] = keys[b]; keys[b] = k;
+        }
+
+        private void emit(int row, boolean accepted) {
+            outRows[outSize] = row;
+            outAccepted[outSize++] = accepted;
+            if (outSize == outRows.length) flush();
+        }
+
+        private void flush() {
+            if (outSize == 0) return;
+            listener.onRows(Arrays.copyOf(outRows, outSize), Arrays.copyOf(outAccepted, outSize));
+            outSize = 0;
+        }
+    }
+
+    private static int median(int a, int b, int c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+}
@@ -0,0 +1,225 @@
+package com.automatas.dfa.engine;
+
+import com.automatas.dfa.model.CompiledDFA;
+import com.automatas.dfa.model.DFA;
+
+import java.util.*;
+
+/**
+ * Minimizes a {@link DFA} with Hopcroft's partition refinement, O(n·k·log n).
+ * Unreachable states are dropped first; states equivalent to the implicit dead
+ * state are removed along with the transitions into them. Each state of the
+ * result is named after the first (in declaration order) original state of its
+ * equivalence class.
+ */
+public class DFAMinimizer {
+
+    /** Minimal automaton plus the old → new state mapping. */
+    public static class MinimizationResult {
+        private final DFA dfa;
+        private final Map<String, String> stateMapping;
+
+        public MinimizationResult(DFA dfa, Map<String, String> stateMapping) {
+            this.dfa = dfa;
+            this.stateMapping = Collections.unmodifiableMap(new LinkedHashMap<>(stateMapping));
+        }
+
+        public DFA getDfa() { return dfa; }
+
+        /**
+         * Maps every original state to its state in the minimal DFA, or to
+         * {@code null} if it was unreachable or equivalent to the dead state.
+         */
+        public Map<String, String> getStateMapping() { return stateMapping; }
+    }
+
+    public static MinimizationResult minimize(DFA dfa) {
+        CompiledDFA c = dfa.getCompiled();
+        int n = c.getStateCount();
+        int k = c.getSymbolCount();
+        int dead = n; // sumidero explícito para las transiciones faltantes
+        int total = n + 1;
+
+        // delta[q * k + a], con el sumidero como estado real
+        int[] delta = new int[total * k];
+        for (int q = 0; q < n; q++) {
+            for (int a = 0; a < k; a++) {
+                int t = c.step(q, a);
+                delta[q * k + a] = t == CompiledDFA.DEAD ? dead : t;
+            }
+        }
+        Arrays.fill(delta, dead * k, total * k, dead);
+
+        // 1) estados alcanzables desde el inicial; el sumidero siempre participa
+        boolean[] reachable = new boolean[total];
+        int[] order = new int[total];
+        int count = 0;
+        order[count++] = c.getStartState();
+        reachable[c.getStartState()] = true;
+        reachable[dead] = true;
+        order[count++] = dead;
+        for (int h = 0; h < count; h++) {
+            int q = order[h];
+            for (int a = 0; a < k; a++) {
+                int t = delta[q * k + a];
+                if (!reachable[t]) { reachable[t] = true; order[count++] = t; }
+            }
+        }
+
+        // 2) transiciones inversas por símbolo (CSR): fuentes de (a, t) en
+        //    inv[invStart[a * stride + t] .. invStart[a * stride + t + 1])
+        int stride = total + 1;
+        int[] invStart = new int[k * stride + 1];
+        for (int h = 0; h < count; h++) {
+            int q = order[h];
+            for (int a = 0; a < k; a++) invStart[a * stride + delta[q * k + a] + 1]++;
+        }
+        for (int i = 1; i < invStart.length; i++) invStart[i] += invStart[i - 1];
+        int[] inv = new int[count * k];
+        int[] pos = invStart.clone();
+        for (int h = 0; h < count; h++) {
+            int q = order[h];
+            for (int a = 0; a < k; a++) inv[pos[a * stride + delta[q * k + a]]++] = q;
+        }
+
+        // 3) partición inicial: aceptación / no aceptación
+        int[] elems = new int[count];
+        int[] loc = new int[total];
+        int[] blockOf = new int[total];
+        int[] first = new int[count + 1];
+        int[] end = new int[count + 1];
+        int[] mid = new int[count + 1];
+        int blocks = 0;
+        int e = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            int startPos = e;
+            for (int h = 0; h < count; h++) {
+                int q = order[h];
+                boolean acc = c.isAccept(q == dead ? CompiledDFA.DEAD : q);
+                if (acc == (pass == 0)) {
+                    elems[e] = q;
+                    loc[q] = e++;
+                    blockOf[q] = blocks;
+                }
+            }
+            if (e > startPos) {
+                first[blocks] = startPos;
+                end[blocks] = e;
+                mid[blocks] = startPos;
+                blocks++;
+            }
+        }
+
+        // 4) refinamiento de Hopcroft
+        // pila de divisores (bloque, símbolo) codificados como bloque * k + símbolo
+        BitSet inWork = new BitSet();
+        int[] work = new int[Math.max(16, 2 * k)];
+        int workSize = 0;
+        if (blocks == 2) {
+            int smaller = (end[0] - first[0]) <= (end[1] - first[1]) ? 0 : 1;
+            for (int a = 0; a < k; a++) {
+                work[workSize++] = smaller * k + a;
+                inWork.set(smaller * k + a);
+            }
+        }
+        int[] splitter = new int[count];
+        int[] touched = new int[count];
+        while (workSize > 0) {
+            int w = work[--workSize];
+            int b = w / k;
+            int a = w % k;
+            inWork.clear(w);
+
+            // copiar el bloque divisor: puede dividirse mientras se procesa
+            int size = end[b] - first[b];
+            System.arraycopy(elems, first[b], splitter, 0, size);
+            int nTouched = 0;
+            for (int i = 0; i < size; i++) {
+                int t = splitter[i];
+                for (int j = invStart[a * stride + t], je = invStart[a * stride + t + 1]; j < je; j++) {
+                    int p = inv[j];
+                    int bp = blockOf[p];
+                    if (mid[bp] == first[bp]) touched[nTouched++] = bp;
+                    // mover p a la parte marcada [first, mid) de su bloque
+                    int m = mid[bp];
+                    if (loc[p] >= m) {
+                        int other = elems[m];
+                        elems[m] = p;
+                        elems[loc[p]] = other;
+                        loc[other] = loc[p];
+                        loc[p] = m;
+                        mid[bp] = m + 1;
+                    }
+                }
+            }
+            for (int i = 0; i < nTouched; i++) {
+                int x = touched[i];
+                if (mid[x] == end[x]) { mid[x] = first[x]; continue; }
+                // dividir: la parte más pequeña pasa a un bloque nuevo
+                int y = blocks++;
+                int markedSize = mid[x] - first[x];
+                int unmarkedSize = end[x] - mid[x];
+                if (markedSize <= unmarkedSize) {
+                    first[y] = first[x];
+                    end[y] = mid[x];
+                    first[x] = mid[x];
+                } else {
+                    first[y] = mid[x];
+                    end[y] = end[x];
+                    end[x] = mid[x];
+                }
+                mid[x] = first[x];
+                mid[y] = first[y];
+                for (int j = first[y]; j < end[y]; j++) blockOf[elems[j]] = y;
+                if (workSize + k > work.length) work = Arrays.copyOf(work, Math.max(work.length * 2, workSize + k));
+                int smaller = (end[x] - first[x]) <= (end[y] - first[y]) ? x : y;
+                for (int s = 0; s < k; s++) {
+                    int add = inWork.get(x * k + s) ? y : smaller;
+                    work[workSize++] = add * k + s;
+                    inWork.set(add * k + s);
+                }
+            }
+        }
+
+        // 5) construir el AFD mínimo; el representante es el estado original de menor índice
+        int deadBlock = blockOf[dead];
+        int[] rep = new int[blocks];
+        Arrays.fill(rep, Integer.MAX_VALUE);
+        for (int h = 0; h < count; h++) {
+            int q = order[h];
+            if (q != dead) rep[blockOf[q]] = Math.min(rep[blockOf[q]], q);
+        }
+        Set<String> states = new LinkedHashSet<>();
+        Set<String> finals = new LinkedHashSet<>();
+        Map<String, Map<String, String>> transitions = new LinkedHashMap<>();
+        Map<String, String> mapping = new LinkedHashMap<>();
+        for (int q = 0; q < n; q++) {
+            String name = c.getStateName(q);
+            if (!reachable[q] || blockOf[q] == deadBlock) {
+                mapping.put(name, null);
+                continue;
+            }
+            String repName = c.getStateName(rep[blockOf[q]]);
+            mapping.put(name, repName);
+            if (rep[blockOf[q]] != q) continue;
+            states.add(name);
+            if (c.isAccept(q)) finals.add(name);
+            Map<String, String> row = new LinkedHashMap<>();
+            for (int a = 0; a < k; a++) {
+                int t = delta[q * k + a];
+                if (blockOf[t] != deadBlock) row.put(c.getSymbolName(a), c.getStateName(rep[blockOf[t]]));
+            }
+            if (!row.isEmpty()) transitions.put(name, row);
+        }
+
+        String start = mapping.get(dfa.getStartState());
+        if (start == null) {
+            // el lenguaje es vacío: basta un único estado inicial sin transiciones
+            start = dfa.getStartState();
+            states.add(start);
+            mapping.put(start, start);
+        }
+        DFA minimal = new DFA(dfa.getSymbols(), states, start, finals, transitions);
+        return new MinimizationResult(minimal, mapping);
+    }
+}
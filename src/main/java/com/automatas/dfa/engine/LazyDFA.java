@@ -0,0 +1,379 @@
+package com.automatas.dfa.engine;
+
+import com.automatas.dfa.model.CompiledDFA;
+import com.automatas.dfa.model.DFA;
+import com.automatas.dfa.model.NFA;
+import com.automatas.dfa.model.SymbolTokenizer;
+import com.automatas.dfa.model.Utf8;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Runs an {@link NFA} as a DFA built on demand (subset construction while
+ * simulating). Each discovered DFA state, an ε-closed set of NFA states, is
+ * memoized with its outgoing transitions in a cache of at most
+ * {@code maxStates} states; when the cache is full it is flushed and refilled
+ * from the current state, so memory stays bounded while inputs that keep to
+ * already discovered states run at table speed.
+ * <p>
+ * Input is read like {@link CompiledDFA} reads it: by code point, or by
+ * longest match through a {@link SymbolTokenizer} when some symbol is longer
+ * than one code point, and a {@code ','} that is not a symbol only separates
+ * symbols. Both engines therefore accept the same inputs.
+ * <p>
+ * Instances are not thread-safe: use one per thread.
+ */
+public class LazyDFA {
+    public static final int DEFAULT_MAX_STATES = 10_000;
+    /** Limit of {@link #toDFA()}, the full determinization used by the diagram and the table. */
+    public static final int DEFAULT_MAX_DFA_STATES = 100_000;
+
+    private static final int UNKNOWN = -2;
+    private static final int NO_SYMBOL = -1;
+    // ',' separadora: no es un paso
+    private static final int SKIP = -2;
+    private static final int ASCII = 128;
+
+    private final NFA nfa;
+    private final int symbolCount;
+    private final int maxStates;
+    // punto de código -> símbolo (solo símbolos de un punto de código), NO_SYMBOL si no pertenece:
+    // directo para ASCII, el resto por búsqueda binaria en points (ordenado) -> pointSymbol
+    private final int[] ascii = new int[ASCII];
+    private final int[] points;
+    private final int[] pointSymbol;
+    // null si todos los símbolos tienen un solo punto de código
+    private final SymbolTokenizer tokenizer;
+
+    // caché: next[id * symbolCount + symbol] -> id, CompiledDFA.DEAD o UNKNOWN
+    private int[] next;
+    private int[][] sets;
+    private boolean[] accepting;
+    private final Map<StateSet, Integer> ids = new HashMap<>();
+    private int size;
+    private int start;
+    private long flushes;
+
+    // conjunto disperso reutilizable para calcular clausuras
+    private final int[] dense;
+    private final int[] sparse;
+    private int members;
+    private final int[] stack;
+
+    public LazyDFA(NFA nfa) {
+        this(nfa, DEFAULT_MAX_STATES);
+    }
+
+    public LazyDFA(NFA nfa, int maxStates) {
+        if (maxStates < 3) throw new IllegalArgumentException("Tamaño de caché inválido: " + maxStates);
+        this.nfa = nfa;
+        this.symbolCount = nfa.getSymbolCount();
+        this.maxStates = maxStates;
+        String[] names = nfa.getSymbols().toArray(new String[0]);
+        Arrays.fill(ascii, NO_SYMBOL);
+        long[] sorted = new long[symbolCount];
+        int count = 0;
+        boolean multiChar = false;
+        for (int a = 0; a < symbolCount; a++) {
+            String s = names[a];
+            if (s.isEmpty() || Character.charCount(s.codePointAt(0)) != s.length()) { multiChar = true; continue; }
+            int cp = s.codePointAt(0);
+            if (cp < ASCII) ascii[cp] = a;
+            else sorted[count++] = (long) cp << 32 | a;
+        }
+        Arrays.sort(sorted, 0, count);
+        this.points = new int[count];
+        this.pointSymbol = new int[count];
+        for (int i = 0; i < count; i++) {
+            points[i] = (int) (sorted[i] >>> 32);
+            pointSymbol[i] = (int) sorted[i];
+        }
+        if (ascii[SymbolTokenizer.SEPARATOR] == NO_SYMBOL) ascii[SymbolTokenizer.SEPARATOR] = SKIP;
+        this.tokenizer = multiChar ? new SymbolTokenizer(names) : null;
+        int n = nfa.getStateCount();
+        this.dense = new int[n];
+        this.sparse = new int[n];
+        this.stack = new int[n];
+        int initial = Math.min(maxStates, 64);
+        this.next = new int[initial * Math.max(1, symbolCount)];
+        this.sets = new int[initial][];
+        this.accepting = new boolean[initial];
+        flush();
+        flushes = 0;
+    }
+
+    /**
+     * A thread-safe {@link Matcher} for {@code nfa}: each thread runs its own
+     * instance, with the default cache size.
+     */
+    public static Matcher matcher(NFA nfa) {
+        ThreadLocal<LazyDFA> lazy = ThreadLocal.withInitial(() -> new LazyDFA(nfa));
+        return input -> lazy.get().accepts(input);
+    }
+
+    public NFA getNfa() { return nfa; }
+
+    /** Number of DFA states currently cached. */
+    public int getCachedStates() { return size; }
+
+    /** Times the cache was full and had to be flushed. */
+    public long getFlushes() { return flushes; }
+
+    public boolean accepts(CharSequence input) {
+        if (tokenizer != null) return acceptsTokens(input);
+        int s = start;
+        final int k = symbolCount;
+        for (int i = 0, len = input.length(); i < len; ) {
+            char c = input.charAt(i);
+            int a;
+            if (c < ASCII) {
+                a = ascii[c];
+                i++;
+            } else {
+                int cp = Character.codePointAt(input, i);
+                a = symbolOf(cp);
+                i += Character.charCount(cp);
+            }
+            if (a < 0) {
+                if (a == SKIP) continue;
+                return false;
+            }
+            int t = next[s * k + a];
+            if (t == UNKNOWN) t = discover(s, a);
+            if (t == CompiledDFA.DEAD) return false;
+            s = t;
+        }
+        return accepting[s];
+    }
+
+    /** UTF-8 variant over a (possibly memory-mapped) buffer; uses absolute gets only. */
+    public boolean accepts(ByteBuffer input, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, input.limit());
+        if (tokenizer != null) {
+            CharSequence text = Utf8.decodeChars(input, offset, length);
+            return text != null && acceptsTokens(text);
+        }
+        int s = start;
+        final int k = symbolCount;
+        int i = offset;
+        int end = offset + length;
+        while (i < end) {
+            int b = input.get(i);
+            int n = b >= 0 ? 1 : Utf8.sequenceLength(b);
+            if (n == 0 || i + n > end) return false;
+            int a = symbolOf(n == 1 ? b : Utf8.decode(input, i, n));
+            i += n;
+            if (a < 0) {
+                if (a == SKIP) continue;
+                return false;
+            }
+            int t = next[s * k + a];
+            if (t == UNKNOWN) t = discover(s, a);
+            if (t == CompiledDFA.DEAD) return false;
+            s = t;
+        }
+        return accepting[s];
+    }
+
+    /** {@link #accepts(CharSequence)} reading symbols by longest match. */
+    private boolean acceptsTokens(CharSequence input) {
+        final SymbolTokenizer tk = tokenizer;
+        int s = start;
+        final int k = symbolCount;
+        for (int i = 0, len = input.length(); i < len; ) {
+            if (tk.isSeparator(input.charAt(i))) { i++; continue; }
+            int m = tk.next(input, i, len);
+            if (m == SymbolTokenizer.NO_MATCH) return false;
+            int a = tk.symbolOf(m);
+            i += tk.lengthOf(m);
+            int t = next[s * k + a];
+            if (t == UNKNOWN) t = discover(s, a);
+            if (t == CompiledDFA.DEAD) return false;
+            s = t;
+        }
+        return accepting[s];
+    }
+
+    /** Symbol of a one-code-point name, {@link #SKIP} for the separator, else {@link #NO_SYMBOL} (also for {@link Utf8#MALFORMED}). */
+    private int symbolOf(int codePoint) {
+        if (codePoint < ASCII) return codePoint >= 0 ? ascii[codePoint] : NO_SYMBOL;
+        int i = Arrays.binarySearch(points, codePoint);
+        return i >= 0 ? pointSymbol[i] : NO_SYMBOL;
+    }
+
+    /**
+     * Computes and caches the transition of cached state {@code s} on {@code a}.
+     * May flush the cache, so the returned id is the only one still valid.
+     */
+    private int discover(int s, int a) {
+        int[] set = sets[s];
+        members = 0;
+        for (int q : set) {
+            for (int e = nfa.edgeStart(q), end = nfa.edgeStart(q + 1); e < end; e++) {
+                if (nfa.edgeSymbol(e) == a) add(nfa.edgeTarget(e));
+            }
+        }
+        int[] target = closure();
+        if (target.length == 0) {
+            next[s * symbolCount + a] = CompiledDFA.DEAD;
+            return CompiledDFA.DEAD;
+        }
+        Integer known = ids.get(new StateSet(target));
+        if (known != null) {
+            next[s * symbolCount + a] = known;
+            return known;
+        }
+        if (size == maxStates) {
+            // caché llena: vaciar y conservar solo el estado actual
+            flush();
+            flushes++;
+            s = intern(set);
+        }
+        int t = intern(target);
+        next[s * symbolCount + a] = t;
+        return t;
+    }
+
+    private void flush() {
+        ids.clear();
+        Arrays.fill(next, 0, size * symbolCount, UNKNOWN);
+        Arrays.fill(sets, 0, size, null);
+        size = 0;
+        members = 0;
+        add(nfa.getStartState());
+        start = intern(closure());
+    }
+
+    private int intern(int[] set) {
+        StateSet key = new StateSet(set);
+        Integer id = ids.get(key);
+        if (id != null) return id;
+        int s = size++;
+        if (s == sets.length) {
+            int cap = Math.min(maxStates, sets.length * 2);
+            sets = Arrays.copyOf(sets, cap);
+            accepting = Arrays.copyOf(accepting, cap);
+            int old = next.length;
+            next = Arrays.copyOf(next, cap * Math.max(1, symbolCount));
+            Arrays.fill(next, old, next.length, UNKNOWN);
+        }
+        Arrays.fill(next, s * symbolCount, (s + 1) * symbolCount, UNKNOWN);
+        sets[s] = set;
+        boolean acc = false;
+        for (int q : set) if (nfa.isAccept(q)) { acc = true; break; }
+        accepting[s] = acc;
+        ids.put(key, s);
+        return s;
+    }
+
+    private void add(int q) {
+        int i = sparse[q];
+        if (i < members && dense[i] == q) return;
+        sparse[q] = members;
+        dense[members++] = q;
+    }
+
+    /** ε-closure of the current members, returned sorted. */
+    private int[] closure() {
+        int top = 0;
+        for (int i = 0; i < members; i++) stack[top++] = dense[i];
+        while (top > 0) {
+            int q = stack[--top];
+            for (int e = nfa.edgeStart(q), end = nfa.edgeStart(q + 1); e < end; e++) {
+                if (nfa.edgeSymbol(e) != NFA.EPSILON) continue;
+                int t = nfa.edgeTarget(e);
+                int before = members;
+                add(t);
+                if (members != before) stack[top++] = t;
+            }
+        }
+        int[] set = Arrays.copyOf(dense, members);
+        Arrays.sort(set);
+        return set;
+    }
+
+    /**
+     * Full determinization of the reachable part, for the views that show every
+     * state: the diagram, the transition table and the step-by-step
+     * {@link com.automatas.dfa.model.DFASimulation}. Accepting inputs needs only
+     * {@link #accepts}. States are named after their NFA state sets, e.g. {@code {q0,q2}}.
+     *
+     * @throws IllegalArgumentException if it needs more than {@link #DEFAULT_MAX_DFA_STATES} states
+     */
+    public DFA toDFA() {
+        return toDFA(DEFAULT_MAX_DFA_STATES);
+    }
+
+    public DFA toDFA(int limit) {
+        Map<StateSet, Integer> found = new HashMap<>();
+        List<int[]> order = new ArrayList<>();
+        members = 0;
+        add(nfa.getStartState());
+        int[] first = closure();
+        found.put(new StateSet(first), 0);
+        order.add(first);
+        int k = symbolCount;
+        int[] table = new int[16 * Math.max(1, k)];
+        for (int h = 0; h < order.size(); h++) {
+            int[] set = order.get(h);
+            if ((h + 1) * k > table.length) table = Arrays.copyOf(table, Math.max(table.length * 2, (h + 1) * k));
+            for (int a = 0; a < k; a++) {
+                members = 0;
+                for (int q : set) {
+                    for (int e = nfa.edgeStart(q), end = nfa.edgeStart(q + 1); e < end; e++) {
+                        if (nfa.edgeSymbol(e) == a) add(nfa.edgeTarget(e));
+                    }
+                }
+                int[] target = closure();
+                if (target.length == 0) {
+                    table[h * k + a] = CompiledDFA.DEAD;
+                    continue;
+                }
+                StateSet key = new StateSet(target);
+                Integer id = found.get(key);
+                if (id == null) {
+                    if (order.size() == limit)
+                        throw new IllegalArgumentException("La determinización del AFN excede " + limit + " estados");
+                    id = order.size();
+                    found.put(key, id);
+                    order.add(target);
+                }
+                table[h * k + a] = id;
+            }
+        }
+        List<String> names = new ArrayList<>(order.size());
+        BitSet accept = new BitSet(order.size());
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < order.size(); i++) {
+            sb.setLength(0);
+            sb.append('{');
+            for (int q : order.get(i)) {
+                if (sb.length() > 1) sb.append(',');
+                sb.append(nfa.getStates().get(q));
+                if (nfa.isAccept(q)) accept.set(i);
+            }
+            names.add(sb.append('}').toString());
+        }
+        return new DFA(nfa.getSymbols(), names, 0, accept, Arrays.copyOf(table, order.size() * k));
+    }
+
+    /** Sorted set of NFA states used as cache key. */
+    private static final class StateSet {
+        private final int[] states;
+        private final int hash;
+
+        StateSet(int[] states) {
+            this.states = states;
+            this.hash = Arrays.hashCode(states);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StateSet && Arrays.equals(states, ((StateSet) o).states);
+        }
+
+        @Override
+        public int hashCode() { return hash; }
+    }
+}
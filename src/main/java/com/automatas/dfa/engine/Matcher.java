@@ -0,0 +1,10 @@
+package com.automatas.dfa.engine;
+
+/**
+ * Accept/reject check of one fixed automaton. Implementations are stateless
+ * and can be shared between threads; {@code dfa::accepts} is the interpreted one.
+ */
+@FunctionalInterface
+public interface Matcher {
+    boolean accepts(CharSequence input);
+}
@@ -0,0 +1,271 @@
+package com.automatas.dfa.engine;
+
+import com.automatas.dfa.model.CompiledDFA;
+import com.automatas.dfa.model.DFA;
+import com.automatas.dfa.model.SymbolTokenizer;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+
+/**
+ * Generates a dedicated class per automaton whose {@code accepts} method has
+ * the states as labeled blocks of bytecode: each block checks for the end of
+ * the input, reads one char and jumps to the next state through a
+ * {@code lookupswitch} on the char (via a backward {@code goto}, so a single
+ * long input is still picked up by on-stack replacement). The class is defined as a hidden class, so
+ * the JIT compiles and specializes it like hand-written code and it can be
+ * unloaded once the matcher is no longer referenced.
+ * <p>
+ * Only states reachable from the start state are emitted, and transitions into
+ * states that cannot reach an accept state go straight to the shared reject
+ * block. Automata whose method would exceed {@link #MAX_CODE_SIZE} bytes are not
+ * generated: {@link #compile} then falls back to the table interpreter.
+ */
+public final class MatcherCompiler {
+    /** HotSpot does not JIT-compile methods larger than this (HugeMethodLimit). */
+    public static final int MAX_CODE_SIZE = 8000;
+
+    private static final String CLASS_NAME = "com/automatas/dfa/engine/GeneratedMatcher";
+
+    // constantes del pool, en el orden en que se escriben
+    private static final int THIS_CLASS = 2;
+    private static final int OBJECT_CLASS = 4;
+    private static final int MATCHER_CLASS = 6;
+    private static final int INIT_NAME = 7;
+    private static final int VOID_DESC = 8;
+    private static final int OBJECT_INIT = 10;
+    private static final int ACCEPTS_NAME = 11;
+    private static final int ACCEPTS_DESC = 12;
+    private static final int LENGTH = 18;
+    private static final int CHAR_AT = 22;
+    private static final int CODE = 23;
+    private static final int POOL_COUNT = 24;
+
+    private MatcherCompiler() {
+    }
+
+    /** Generated matcher for {@code dfa}, or the interpreter if it is too large. */
+    public static Matcher compile(DFA dfa) {
+        Matcher m = generate(dfa);
+        return m != null ? m : dfa::accepts;
+    }
+
+    /**
+     * Generated matcher for {@code dfa}, or {@code null} if it is too large to
+     * generate or its symbols are not single BMP chars (the generated code reads one char per step).
+     */
+    public static Matcher generate(DFA dfa) {
+        if (!dfa.getCompiled().isCharAlphabet()) return null;
+        byte[] bytes = classBytes(dfa.getCompiled());
+        if (bytes == null) return null;
+        try {
+            MethodHandles.Lookup hidden = MethodHandles.lookup().defineHiddenClass(bytes, true);
+            return (Matcher) hidden.findConstructor(hidden.lookupClass(), MethodType.methodType(void.class)).invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("No se pudo generar el reconocedor del AFD", e);
+        }
+    }
+
+    static byte[] classBytes(CompiledDFA dfa) {
+        byte[] code = acceptsCode(dfa);
+        if (code == null) return null;
+        Bytes b = new Bytes(512 + code.length);
+        b.u4(0xCAFEBABE);
+        // versión 49: sin StackMapTable, el verificador infiere los tipos
+        b.u2(0).u2(49);
+        b.u2(POOL_COUNT);
+        b.utf8(CLASS_NAME).classRef(1);                                  // 1, 2
+        b.utf8("java/lang/Object").classRef(3);                          // 3, 4
+        b.utf8("com/automatas/dfa/engine/Matcher").classRef(5);          // 5, 6
+        b.utf8("<init>").utf8("()V").nameAndType(7, 8).memberRef(10, 4, 9); // 7..10
+        b.utf8("accepts").utf8("(Ljava/lang/CharSequence;)Z");           // 11, 12
+        b.utf8("java/lang/CharSequence").classRef(13);                   // 13, 14
+        b.utf8("length").utf8("()I").nameAndType(15, 16).memberRef(11, 14, 17); // 15..18
+        b.utf8("charAt").utf8("(I)C").nameAndType(19, 20).memberRef(11, 14, 21); // 19..22
+        b.utf8("Code");                                                  // 23
+
+        b.u2(0x0031); // public final super
+        b.u2(THIS_CLASS).u2(OBJECT_CLASS);
+        b.u2(1).u2(MATCHER_CLASS);
+        b.u2(0); // campos
+        b.u2(2); // métodos
+
+        byte[] init = {0x2a, (byte) 0xb7, 0, OBJECT_INIT, (byte) 0xb1}; // aload_0; invokespecial; return
+        method(b, INIT_NAME, VOID_DESC, 1, 1, init);
+        method(b, ACCEPTS_NAME, ACCEPTS_DESC, 2, 4, code);
+        b.u2(0); // atributos de clase
+        return b.toArray();
+    }
+
+    private static void method(Bytes b, int name, int desc, int maxStack, int maxLocals, byte[] code) {
+        b.u2(0x0001).u2(name).u2(desc).u2(1);
+        b.u2(CODE).u4(12 + code.length);
+        b.u2(maxStack).u2(maxLocals).u4(code.length).bytes(code);
+        b.u2(0).u2(0); // sin excepciones ni atributos
+    }
+
+    /**
+     * Body of {@code accepts(CharSequence)}; locals: 1 = input, 2 = length, 3 = index.
+     * Returns {@code null} if it would exceed {@link #MAX_CODE_SIZE}.
+     */
+    private static byte[] acceptsCode(CompiledDFA dfa) {
+        int n = dfa.getStateCount();
+        // caracteres del alfabeto (los símbolos de varios caracteres nunca se leen)
+        // más la ',' separadora, cuya clase deja cada estado en sí mismo
+        char[] chars = new char[dfa.getSymbolCount() + 1];
+        int charCount = 0;
+        for (int a = 0; a < dfa.getSymbolCount(); a++) {
+            String s = dfa.getSymbolName(a);
+            if (s.length() == 1) chars[charCount++] = s.charAt(0);
+        }
+        if (dfa.isSeparator(SymbolTokenizer.SEPARATOR)) chars[charCount++] = SymbolTokenizer.SEPARATOR;
+        chars = Arrays.copyOf(chars, charCount);
+        Arrays.sort(chars);
+
+        // estados alcanzables que aún pueden aceptar, empezando por el inicial
+        int[] order = new int[n];
+        int[] label = new int[n];
+        Arrays.fill(label, -1);
+        int count = 0;
+        int start = dfa.getStartState();
+        if (!dfa.isRejecting(start)) {
+            order[count++] = start;
+            label[start] = 0;
+        }
+        for (int h = 0; h < count; h++) {
+            for (char ch : chars) {
+                int t = dfa.step(order[h], ch);
+                if (!dfa.isRejecting(t) && label[t] < 0) {
+                    label[t] = count;
+                    order[count++] = t;
+                }
+            }
+        }
+
+        Bytes code = new Bytes(64 + count * (24 + 8 * charCount));
+        int reject = count; // etiqueta del bloque de rechazo compartido
+        // etiquetas count + 1 + l: "goto" hacia atrás al estado l, al final del método
+        int[] labelPos = new int[2 * count + 1];
+        // saltos pendientes: (posición del desplazamiento, inicio de la instrucción, etiqueta, ancho)
+        int[] fixups = new int[64];
+        int fixupCount = 0;
+
+        code.u1(0x2b).u1(0xb9).u2(LENGTH).u1(1).u1(0); // aload_1; invokeinterface length
+        code.u1(0x3d);                                   // istore_2
+        code.u1(0x03).u1(0x3e);                          // iconst_0; istore_3
+        if (count == 0) {
+            code.u1(0x03).u1(0xac);                      // iconst_0; ireturn
+            return code.toArray();
+        }
+        for (int l = 0; l < count; l++) {
+            int q = order[l];
+            labelPos[l] = code.size();
+            if (code.size() > MAX_CODE_SIZE) return null;
+            int pairs = 0;
+            for (char ch : chars) if (!dfa.isRejecting(dfa.step(q, ch))) pairs++;
+            // if (i >= len) return accept(q)
+            code.u1(0x1d).u1(0x1c);                      // iload_3; iload_2
+            int at = code.size();
+            code.u1(0xa1).u2(0);                          // if_icmplt
+            if (fixupCount + 1 + pairs > fixups.length / 4) fixups = Arrays.copyOf(fixups, (fixupCount + 1 + pairs) * 8);
+            if (pairs == 0) {
+                // quedan caracteres pero ninguno lleva a un estado vivo
+                fixups[4 * fixupCount] = at + 1; fixups[4 * fixupCount + 1] = at;
+                fixups[4 * fixupCount + 2] = reject; fixups[4 * fixupCount + 3] = 2;
+                fixupCount++;
+                code.u1(dfa.isAccept(q) ? 0x04 : 0x03).u1(0xac);
+                continue;
+            }
+            int read = code.size() + 2;                  // tras "iconst; ireturn"
+            code.patch2(at + 1, read - at);
+            code.u1(dfa.isAccept(q) ? 0x04 : 0x03).u1(0xac);
+            // c = input.charAt(i++)
+            code.u1(0x2b).u1(0x1d).u1(0xb9).u2(CHAR_AT).u1(2).u1(0); // aload_1; iload_3; invokeinterface charAt
+            code.u1(0x84).u1(3).u1(1);                   // iinc 3 1
+            int sw = code.size();
+            code.u1(0xab);                               // lookupswitch
+            while (code.size() % 4 != 0) code.u1(0);
+            fixups[4 * fixupCount] = code.size(); fixups[4 * fixupCount + 1] = sw;
+            fixups[4 * fixupCount + 2] = reject; fixups[4 * fixupCount + 3] = 4;
+            fixupCount++;
+            code.u4(0).u4(pairs);
+            for (char ch : chars) {
+                int t = dfa.step(q, ch);
+                if (dfa.isRejecting(t)) continue;
+                code.u4(ch);
+                fixups[4 * fixupCount] = code.size(); fixups[4 * fixupCount + 1] = sw;
+                fixups[4 * fixupCount + 2] = count + 1 + label[t]; fixups[4 * fixupCount + 3] = 4;
+                fixupCount++;
+                code.u4(0);
+            }
+        }
+        labelPos[reject] = code.size();
+        code.u1(0x03).u1(0xac);                          // iconst_0; ireturn
+        // Las transiciones pasan por un goto hacia atrás: el intérprete solo cuenta esos
+        // saltos como iteraciones, y sin ellos una sola cadena larga nunca se compilaría (OSR).
+        for (int l = 0; l < count; l++) {
+            labelPos[count + 1 + l] = code.size();
+            code.u1(0xa7).u2(labelPos[l] - code.size() + 1); // goto
+        }
+        if (code.size() > MAX_CODE_SIZE) return null;
+
+        for (int f = 0; f < fixupCount; f++) {
+            int offset = labelPos[fixups[4 * f + 2]] - fixups[4 * f + 1];
+            if (fixups[4 * f + 3] == 2) code.patch2(fixups[4 * f], offset);
+            else code.patch4(fixups[4 * f], offset);
+        }
+        return code.toArray();
+    }
+
+    /** Minimal big-endian byte writer for the class file. */
+    private static final class Bytes {
+        private byte[] data;
+        private int size;
+
+        Bytes(int capacity) { data = new byte[capacity]; }
+
+        int size() { return size; }
+
+        Bytes u1(int v) {
+            if (size == data.length) data = Arrays.copyOf(data, data.length * 2);
+            data[size++] = (byte) v;
+            return this;
+        }
+
+        Bytes u2(int v) { return u1(v >>> 8).u1(v); }
+
+        Bytes u4(int v) { return u2(v >>> 16).u2(v); }
+
+        Bytes bytes(byte[] b) {
+            for (byte x : b) u1(x);
+            return this;
+        }
+
+        Bytes utf8(String s) {
+            // nombres ASCII: la codificación modificada de la JVM coincide con ASCII
+            u1(1).u2(s.length());
+            for (int i = 0; i < s.length(); i++) u1(s.charAt(i));
+            return this;
+        }
+
+        Bytes classRef(int nameIndex) { return u1(7).u2(nameIndex); }
+
+        Bytes nameAndType(int name, int desc) { return u1(12).u2(name).u2(desc); }
+
+        /** Methodref (tag 10) or InterfaceMethodref (tag 11). */
+        Bytes memberRef(int tag, int owner, int nameAndType) { return u1(tag).u2(owner).u2(nameAndType); }
+
+        void patch2(int at, int v) {
+            data[at] = (byte) (v >>> 8);
+            data[at + 1] = (byte) v;
+        }
+
+        void patch4(int at, int v) {
+            patch2(at, v >>> 16);
+            patch2(at + 2, v);
+        }
+
+        byte[] toArray() { return Arrays.copyOf(data, size); }
+    }
+}
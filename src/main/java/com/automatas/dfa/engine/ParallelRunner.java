@@ -0,0 +1,216 @@
+package com.automatas.dfa.engine;
+
+import com.automatas.dfa.model.CompiledDFA;
+import com.automatas.dfa.model.DFA;
+import com.automatas.dfa.model.Utf8;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Runs a single very long input on several cores. The input is cut into chunks;
+ * every chunk but the first is simulated from all states at once, producing a
+ * state → state transfer vector, and the vectors are composed in order. The
+ * result is the same final state as the sequential run.
+ * <p>
+ * Lanes that reach the same state are merged and dead lanes dropped, so on most
+ * automata a chunk collapses to a single lane after a few symbols and then runs
+ * at sequential speed.
+ * <p>
+ * Inputs of automata whose symbols are not single BMP chars are run
+ * sequentially, since a chunk boundary could fall inside a symbol.
+ */
+public class ParallelRunner {
+    public static final int DEFAULT_MIN_CHUNK = 1 << 20;
+
+    private final ForkJoinPool pool;
+    private final int minChunk;
+
+    public ParallelRunner() {
+        this(ForkJoinPool.commonPool(), DEFAULT_MIN_CHUNK);
+    }
+
+    public ParallelRunner(ForkJoinPool pool, int minChunk) {
+        if (minChunk <= 0) throw new IllegalArgumentException("Tamaño de bloque inválido: " + minChunk);
+        this.pool = pool;
+        this.minChunk = minChunk;
+    }
+
+    public boolean accepts(DFA dfa, CharSequence input) {
+        CompiledDFA c = dfa.getCompiled();
+        // secuencial: el recorrido se detiene en cuanto el resultado está decidido
+        if (!c.isCharAlphabet() || chunkCount(input.length()) <= 1) return c.accepts(input);
+        return c.isAccept(run(c, input));
+    }
+
+    public boolean accepts(DFA dfa, ByteBuffer input, int offset, int length) {
+        CompiledDFA c = dfa.getCompiled();
+        if (!c.isCharAlphabet() || chunkCount(length) <= 1) return c.accepts(input, offset, length);
+        return c.isAccept(run(c, input, offset, length));
+    }
+
+    /** Final state id (or {@link CompiledDFA#DEAD}) after consuming the whole input. */
+    public int run(CompiledDFA c, CharSequence input) {
+        int length = input.length();
+        int chunks = c.isCharAlphabet() ? chunkCount(length) : 1;
+        if (chunks <= 1) return c.run(input);
+        int size = (length + chunks - 1) / chunks;
+
+        List<ForkJoinTask<Transfer>> tasks = new ArrayList<>(chunks - 1);
+        for (int k = 1; k < chunks; k++) {
+            int from = k * size;
+            int to = Math.min(length, from + size);
+            tasks.add(pool.submit(() -> {
+                Transfer t = new Transfer(c);
+                for (int i = from; i < to; i++) {
+                    if (t.lanes <= 1) return t.finish(c.runFrom(t.single(), input, i, to));
+                    t.step(c, input.charAt(i));
+                }
+                return t;
+            }));
+        }
+        int s = c.runFrom(c.getStartState(), input, 0, Math.min(length, size));
+        return compose(s, tasks);
+    }
+
+    /** UTF-8 variant; chunk boundaries are moved so no multibyte sequence is split. */
+    public int run(CompiledDFA c, ByteBuffer input, int offset, int length) {
+        int chunks = c.isCharAlphabet() ? chunkCount(length) : 1;
+        if (chunks <= 1) return c.runFrom(c.getStartState(), input, offset, length);
+        int size = (length + chunks - 1) / chunks;
+        int end = offset + length;
+
+        int[] bounds = new int[chunks + 1];
+        bounds[0] = offset;
+        for (int k = 1; k < chunks; k++) {
+            int b = Math.max(bounds[k - 1], Math.min(end, offset + k * size));
+            while (b < end && Utf8.isContinuation(input.get(b))) b++;
+            bounds[k] = b;
+        }
+        bounds[chunks] = end;
+
+        List<ForkJoinTask<Transfer>> tasks = new ArrayList<>(chunks - 1);
+        for (int k = 1; k < chunks; k++) {
+            int from = bounds[k];
+            int to = bounds[k + 1];
+            tasks.add(pool.submit(() -> {
+                Transfer t = new Transfer(c);
+                int i = from;
+                while (i < to) {
+                    if (t.lanes <= 1) return t.finish(c.runFrom(t.single(), input, i, to - i));
+                    int b = input.get(i);
+                    int n = b >= 0 ? 1 : Utf8.sequenceLength(b);
+                    if (n == 0 || i + n > to) return t.finish(CompiledDFA.DEAD);
+                    t.stepCodePoint(c, n == 1 ? b : Utf8.decode(input, i, n));
+                    i += n;
+                }
+                return t;
+            }));
+        }
+        int s = c.runFrom(c.getStartState(), input, bounds[0], bounds[1] - bounds[0]);
+        return compose(s, tasks);
+    }
+
+    private int chunkCount(int length) {
+        if (pool.getParallelism() <= 1) return 1;
+        long byLength = length / minChunk;
+        return (int) Math.max(1, Math.min(byLength, pool.getParallelism() * 4L));
+    }
+
+    private static int compose(int state, List<ForkJoinTask<Transfer>> tasks) {
+        int s = state;
+        for (ForkJoinTask<Transfer> task : tasks) {
+            Transfer t = task.join();
+            s = t.apply(s);
+        }
+        return s;
+    }
+
+    /**
+     * Transfer vector of one chunk: maps each start state to a lane, each lane
+     * holding the current state reached from the start states mapped to it.
+     */
+    private static final class Transfer {
+        private static final int COMPACT_INTERVAL = 16;
+
+        private final int[] laneOf;   // estado inicial -> carril, -1 si murió
+        private int[] cur;            // carril -> estado actual
+        private int[] next;
+        private final int[] remap;
+        private final int[] owner;
+        private final int[] stamp;
+        private int epoch;
+        private int steps;
+        int lanes;
+
+        Transfer(CompiledDFA c) {
+            int n = c.getStateCount();
+            laneOf = new int[n];
+            cur = new int[n];
+            next = new int[n];
+            remap = new int[n];
+            owner = new int[n];
+            stamp = new int[n];
+            for (int i = 0; i < n; i++) { laneOf[i] = i; cur[i] = i; }
+            lanes = n;
+        }
+
+        void step(CompiledDFA c, char ch) {
+            for (int j = 0; j < lanes; j++) cur[j] = c.step(cur[j], ch);
+            if ((++steps & (COMPACT_INTERVAL - 1)) == 0) compact();
+        }
+
+        void stepCodePoint(CompiledDFA c, int cp) {
+            for (int j = 0; j < lanes; j++) cur[j] = c.stepCodePoint(cur[j], cp);
+            if ((++steps & (COMPACT_INTERVAL - 1)) == 0) compact();
+        }
+
+        /**
+         * Merges lanes that reached the same state and drops dead ones. Duplicate
+         * lanes stay correct in between, so this only runs every few symbols.
+         */
+        private void compact() {
+            epoch++;
+            int count = 0;
+            boolean changed = false;
+            for (int j = 0; j < lanes; j++) {
+                int t = cur[j];
+                if (t == CompiledDFA.DEAD) { remap[j] = -1; changed = true; continue; }
+                if (stamp[t] == epoch) { remap[j] = owner[t]; changed = true; continue; }
+                stamp[t] = epoch;
+                owner[t] = count;
+                remap[j] = count;
+                next[count++] = t;
+            }
+            if (!changed) return;
+            for (int s = 0; s < laneOf.length; s++) {
+                if (laneOf[s] >= 0) laneOf[s] = remap[laneOf[s]];
+            }
+            int[] tmp = cur; cur = next; next = tmp;
+            lanes = count;
+        }
+
+        int single() {
+            return lanes == 0 ? CompiledDFA.DEAD : cur[0];
+        }
+
+        /** Fixes the state of the only remaining lane after running the rest of the chunk. */
+        Transfer finish(int state) {
+            if (lanes == 1) cur[0] = state;
+            if (state == CompiledDFA.DEAD) {
+                for (int s = 0; s < laneOf.length; s++) laneOf[s] = -1;
+                lanes = 0;
+            }
+            return this;
+        }
+
+        int apply(int state) {
+            if (state == CompiledDFA.DEAD) return CompiledDFA.DEAD;
+            int lane = laneOf[state];
+            return lane < 0 ? CompiledDFA.DEAD : cur[lane];
+        }
+    }
+}
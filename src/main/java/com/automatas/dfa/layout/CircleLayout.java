@@ -0,0 +1,27 @@
+package com.automatas.dfa.layout;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/** All states on one circle, in id order, starting at the top; fine for a few dozen states. */
+public class CircleLayout implements LayoutAlgorithm {
+    private static final double SPACING = 90;
+    private static final double MIN_RADIUS = 150;
+
+    @Override
+    public String getName() { return "Circular"; }
+
+    @Override
+    public Layout layout(LayoutGraph graph, Consumer<Layout> progress, BooleanSupplier cancelled) {
+        int n = graph.getNodeCount();
+        double radius = Math.max(MIN_RADIUS, n * SPACING / (2 * Math.PI));
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            double angle = 2 * Math.PI * i / n - Math.PI / 2;
+            x[i] = radius * Math.cos(angle);
+            y[i] = radius * Math.sin(angle);
+        }
+        return new Layout(x, y, true);
+    }
+}
@@ -0,0 +1,242 @@
+package com.automatas.dfa.layout;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Force-directed layout (Fruchterman–Reingold): edges pull their states
+ * together, every pair of states pushes apart, and the step size cools down
+ * each iteration. Repulsion uses the Barnes–Hut approximation over a quadtree,
+ * so an iteration costs O(n log n) instead of O(n²).
+ * <p>
+ * It starts from the {@link LayeredLayout} result, which already separates the
+ * graph by distance from the start state, and publishes the positions as they
+ * relax.
+ */
+public class ForceLayout implements LayoutAlgorithm {
+    /** Ideal edge length. */
+    private static final double K = 90;
+    /** Barnes–Hut opening criterion: a cell is one body if size / distance < THETA. */
+    private static final double THETA = 0.9;
+    private static final double GRAVITY = 0.02;
+    private static final int MAX_ITERATIONS = 300;
+    private static final double MIN_TEMPERATURE = 0.5;
+
+    private final LayeredLayout seed = new LayeredLayout();
+
+    @Override
+    public String getName() { return "Dirigido por fuerzas"; }
+
+    @Override
+    public Layout layout(LayoutGraph graph, Consumer<Layout> progress, BooleanSupplier cancelled) {
+        Layout initial = seed.layout(graph, progress, cancelled);
+        if (initial == null) return null;
+        int n = graph.getNodeCount();
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = initial.getX(i);
+            y[i] = initial.getY(i);
+        }
+        if (n < 2) return initial;
+
+        double[] dx = new double[n];
+        double[] dy = new double[n];
+        QuadTree tree = new QuadTree(n);
+        double temperature = Math.max(K, Math.sqrt(n) * K / 4);
+        double cooling = Math.pow(MIN_TEMPERATURE / temperature, 1.0 / MAX_ITERATIONS);
+        for (int it = 0; it < MAX_ITERATIONS && temperature > MIN_TEMPERATURE; it++) {
+            if (cancelled.getAsBoolean()) return null;
+            double cx = 0, cy = 0;
+            for (int i = 0; i < n; i++) {
+                cx += x[i];
+                cy += y[i];
+            }
+            cx /= n;
+            cy /= n;
+            tree.build(x, y);
+            for (int i = 0; i < n; i++) {
+                tree.repulsion(i, x, y);
+                // leve atracción hacia el centro para que las componentes no se alejen
+                dx[i] = tree.fx + GRAVITY * (cx - x[i]);
+                dy[i] = tree.fy + GRAVITY * (cy - y[i]);
+            }
+            for (int e = 0; e < graph.getEdgeCount(); e++) {
+                int u = graph.edgeFrom(e), v = graph.edgeTo(e);
+                double ex = x[v] - x[u], ey = y[v] - y[u];
+                double d = Math.max(0.01, Math.hypot(ex, ey));
+                double f = d / K; // (d² / K) / d
+                dx[u] += ex * f;
+                dy[u] += ey * f;
+                dx[v] -= ex * f;
+                dy[v] -= ey * f;
+            }
+            for (int i = 0; i < n; i++) {
+                double d = Math.hypot(dx[i], dy[i]);
+                if (d > 0) {
+                    double step = Math.min(d, temperature) / d;
+                    x[i] += dx[i] * step;
+                    y[i] += dy[i] * step;
+                }
+            }
+            temperature *= cooling;
+            progress.accept(new Layout(x, y, false));
+        }
+        return new Layout(x, y, true);
+    }
+
+    /**
+     * Point-region quadtree over the current positions, rebuilt every
+     * iteration. Cells are stored in parallel arrays; each keeps its total mass
+     * (number of states) and center of mass.
+     */
+    private static final class QuadTree {
+        private static final int MAX_DEPTH = 40;
+
+        private int[] child;   // 4 por celda, -1 si no hay
+        private int[] body;    // estado de una hoja con un solo estado, -1 si no
+        private double[] mass, mx, my, left, top, size;
+        private int cells;
+        private final int[] stack = new int[4 * MAX_DEPTH + 8];
+        // resultado de repulsion()
+        double fx, fy;
+
+        QuadTree(int n) {
+            allocate(2 * n + 1);
+        }
+
+        private void allocate(int capacity) {
+            child = child == null ? new int[4 * capacity] : Arrays.copyOf(child, 4 * capacity);
+            body = body == null ? new int[capacity] : Arrays.copyOf(body, capacity);
+            mass = mass == null ? new double[capacity] : Arrays.copyOf(mass, capacity);
+            mx = mx == null ? new double[capacity] : Arrays.copyOf(mx, capacity);
+            my = my == null ? new double[capacity] : Arrays.copyOf(my, capacity);
+            left = left == null ? new double[capacity] : Arrays.copyOf(left, capacity);
+            top = top == null ? new double[capacity] : Arrays.copyOf(top, capacity);
+            size = size == null ? new double[capacity] : Arrays.copyOf(size, capacity);
+        }
+
+        private int newCell(double l, double t, double s) {
+            if (cells == body.length) allocate(2 * cells);
+            int c = cells++;
+            Arrays.fill(child, 4 * c, 4 * c + 4, -1);
+            body[c] = -1;
+            mass[c] = 0;
+            mx[c] = 0;
+            my[c] = 0;
+            left[c] = l;
+            top[c] = t;
+            size[c] = s;
+            return c;
+        }
+
+        void build(double[] x, double[] y) {
+            double x0 = x[0], y0 = y[0], x1 = x[0], y1 = y[0];
+            for (int i = 1; i < x.length; i++) {
+                x0 = Math.min(x0, x[i]);
+                x1 = Math.max(x1, x[i]);
+                y0 = Math.min(y0, y[i]);
+                y1 = Math.max(y1, y[i]);
+            }
+            cells = 0;
+            newCell(x0, y0, Math.max(1, Math.max(x1 - x0, y1 - y0)) * 1.0001);
+            for (int i = 0; i < x.length; i++) insert(i, x, y);
+            // sumas -> centros de masa
+            for (int c = 0; c < cells; c++) {
+                if (mass[c] > 0) {
+                    mx[c] /= mass[c];
+                    my[c] /= mass[c];
+                }
+            }
+        }
+
+        private void insert(int i, double[] x, double[] y) {
+            int c = 0;
+            for (int depth = 0; ; depth++) {
+                double m = mass[c];
+                mass[c] = m + 1;
+                mx[c] += x[i];
+                my[c] += y[i];
+                if (m == 0) {
+                    body[c] = i;
+                    return;
+                }
+                if (depth == MAX_DEPTH) {
+                    // estados prácticamente en el mismo punto: se quedan agrupados en la hoja
+                    return;
+                }
+                int old = body[c];
+                if (old >= 0) {
+                    // hoja ocupada: el estado que tenía baja a su cuadrante
+                    body[c] = -1;
+                    int q = quadrant(c, x[old], y[old]);
+                    int k = child(c, q);
+                    mass[k] = 1;
+                    mx[k] = x[old];
+                    my[k] = y[old];
+                    body[k] = old;
+                }
+                c = child(c, quadrant(c, x[i], y[i]));
+            }
+        }
+
+        private int quadrant(int c, double px, double py) {
+            double half = size[c] / 2;
+            return (px >= left[c] + half ? 1 : 0) | (py >= top[c] + half ? 2 : 0);
+        }
+
+        private int child(int c, int q) {
+            int k = child[4 * c + q];
+            if (k < 0) {
+                double half = size[c] / 2;
+                k = newCell(left[c] + ((q & 1) != 0 ? half : 0), top[c] + ((q & 2) != 0 ? half : 0), half);
+                child[4 * c + q] = k;
+            }
+            return k;
+        }
+
+        /** Repulsive force on state {@code i}, left in {@link #fx}, {@link #fy}. */
+        void repulsion(int i, double[] x, double[] y) {
+            double px = x[i], py = y[i];
+            double sx = 0, sy = 0;
+            int top = 0;
+            stack[top++] = 0;
+            while (top > 0) {
+                int c = stack[--top];
+                // hoja con solo i; si la hoja agrupa más estados, body[c] es el primero y i se descuenta abajo
+                if (mass[c] == 1 && body[c] == i) continue;
+                double ex = px - mx[c], ey = py - my[c];
+                double d2 = ex * ex + ey * ey;
+                boolean leaf = child[4 * c] < 0 && child[4 * c + 1] < 0 && child[4 * c + 2] < 0 && child[4 * c + 3] < 0;
+                if (leaf || size[c] * size[c] < THETA * THETA * d2) {
+                    double m = mass[c];
+                    if (leaf && samePoint(c, px, py)) m -= 1; // hoja agrupada que contiene a i
+                    if (m <= 0) continue;
+                    if (d2 < 1e-4) {
+                        // coincidentes: empujar en una dirección fija según el índice
+                        double angle = i * 2.399963;
+                        ex = Math.cos(angle);
+                        ey = Math.sin(angle);
+                        d2 = 1;
+                    }
+                    double f = m * K * K / d2; // (K² / d) / d
+                    sx += ex * f;
+                    sy += ey * f;
+                } else {
+                    for (int q = 0; q < 4; q++) {
+                        int k = child[4 * c + q];
+                        if (k >= 0) stack[top++] = k;
+                    }
+                }
+            }
+            fx = sx;
+            fy = sy;
+        }
+
+        /** Whether {@code (px, py)} lies in {@code c}, a leaf grouping several states (deepest level). */
+        private boolean samePoint(int c, double px, double py) {
+            return mass[c] > 1 && px >= left[c] && px <= left[c] + size[c] && py >= top[c] && py <= top[c] + size[c];
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.automatas.dfa.layout;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Layered (Sugiyama-style) layout, left to right. States are put in layers by
+ * breadth-first distance from the start state, so every forward edge spans
+ * exactly one layer and no dummy nodes are needed; states not reachable from
+ * the start get further BFS runs from layer 0. The order inside each layer is
+ * then improved with barycenter sweeps to reduce crossings, publishing the
+ * layout after every sweep.
+ */
+public class LayeredLayout implements LayoutAlgorithm {
+    static final double LAYER_GAP = 160;
+    static final double NODE_GAP = 80;
+    private static final int MAX_SWEEPS = 24;
+
+    @Override
+    public String getName() { return "Por capas"; }
+
+    @Override
+    public Layout layout(LayoutGraph graph, Consumer<Layout> progress, BooleanSupplier cancelled) {
+        int n = graph.getNodeCount();
+        double[] x = new double[n];
+        double[] y = new double[n];
+        if (n == 0) return new Layout(x, y, true);
+
+        // capas por BFS sobre las aristas dirigidas
+        int[] layer = new int[n];
+        Arrays.fill(layer, -1);
+        int[] queue = new int[n];
+        int tail = 0;
+        int layerCount = 0;
+        for (int root = -1; root < n; root++) {
+            int r = root < 0 ? graph.getStart() : root;
+            if (layer[r] >= 0) continue;
+            layer[r] = 0;
+            int head = tail;
+            queue[tail++] = r;
+            while (head < tail) {
+                int v = queue[head++];
+                layerCount = Math.max(layerCount, layer[v] + 1);
+                for (int i = graph.outStart(v); i < graph.outStart(v + 1); i++) {
+                    int w = graph.successor(i);
+                    if (layer[w] < 0) {
+                        layer[w] = layer[v] + 1;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+        }
+
+        // nodos de cada capa en orden BFS: members[layerStart[l] .. layerStart[l + 1])
+        int[] layerStart = new int[layerCount + 1];
+        for (int v = 0; v < n; v++) layerStart[layer[v] + 1]++;
+        for (int l = 0; l < layerCount; l++) layerStart[l + 1] += layerStart[l];
+        int[] members = new int[n];
+        int[] fill = Arrays.copyOf(layerStart, layerCount);
+        for (int h = 0; h < n; h++) {
+            int v = queue[h];
+            members[fill[layer[v]]++] = v;
+        }
+        int[] position = new int[n];
+        for (int l = 0; l < layerCount; l++) {
+            for (int i = layerStart[l]; i < layerStart[l + 1]; i++) position[members[i]] = i - layerStart[l];
+        }
+        place(members, layerStart, layer, x, y);
+        progress.accept(new Layout(x, y, false));
+
+        double[] key = new double[n];
+        Integer[] order = new Integer[0];
+        for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+            if (cancelled.getAsBoolean()) return null;
+            boolean down = sweep % 2 == 0;
+            boolean changed = false;
+            for (int s = 0; s < layerCount; s++) {
+                int l = down ? s : layerCount - 1 - s;
+                int ref = down ? l - 1 : l + 1;
+                if (ref < 0 || ref >= layerCount) continue;
+                int from = layerStart[l];
+                int size = layerStart[l + 1] - from;
+                // posiciones centradas, para comparar capas de distinto tamaño
+                double refCenter = (layerStart[ref + 1] - layerStart[ref] - 1) / 2.0;
+                double center = (size - 1) / 2.0;
+                for (int i = from; i < from + size; i++) {
+                    int v = members[i];
+                    double sum = 0;
+                    int count = 0;
+                    for (int a = graph.adjStart(v); a < graph.adjStart(v + 1); a++) {
+                        int w = graph.neighbour(a);
+                        if (layer[w] == ref) {
+                            sum += position[w] - refCenter;
+                            count++;
+                        }
+                    }
+                    // sin vecinos en la capa de referencia: conserva su sitio
+                    key[v] = count > 0 ? sum / count : position[v] - center;
+                }
+                if (order.length < size) order = new Integer[Math.max(size, 2 * order.length)];
+                for (int i = 0; i < size; i++) order[i] = members[from + i];
+                Arrays.sort(order, 0, size, (p, q) -> Double.compare(key[p], key[q]));
+                for (int i = 0; i < size; i++) {
+                    int v = order[i];
+                    if (members[from + i] != v) changed = true;
+                    members[from + i] = v;
+                    position[v] = i;
+                }
+            }
+            place(members, layerStart, layer, x, y);
+            if (!changed && sweep > 0) break;
+            progress.accept(new Layout(x, y, false));
+        }
+        return new Layout(x, y, true);
+    }
+
+    private static void place(int[] members, int[] layerStart, int[] layer, double[] x, double[] y) {
+        for (int l = 0; l + 1 < layerStart.length; l++) {
+            int size = layerStart[l + 1] - layerStart[l];
+            for (int i = 0; i < size; i++) {
+                int v = members[layerStart[l] + i];
+                x[v] = layer[v] * LAYER_GAP;
+                y[v] = (i - (size - 1) / 2.0) * NODE_GAP;
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.automatas.dfa.layout;
+
+/**
+ * Coordinates of every state, indexed by {@link com.automatas.dfa.model.CompiledDFA}
+ * state id, in layout units (about one pixel at scale 1). Intermediate layouts
+ * published while an algorithm refines have {@link #isFinal()} false.
+ */
+public final class Layout {
+    private final double[] x;
+    private final double[] y;
+    private final boolean finished;
+    private final double minX, minY, maxX, maxY;
+
+    /** Copies the coordinates, so the caller may keep refining its arrays. */
+    public Layout(double[] x, double[] y, boolean finished) {
+        this.x = x.clone();
+        this.y = y.clone();
+        this.finished = finished;
+        double x0 = 0, y0 = 0, x1 = 0, y1 = 0;
+        for (int i = 0; i < x.length; i++) {
+            if (i == 0 || x[i] < x0) x0 = x[i];
+            if (i == 0 || x[i] > x1) x1 = x[i];
+            if (i == 0 || y[i] < y0) y0 = y[i];
+            if (i == 0 || y[i] > y1) y1 = y[i];
+        }
+        minX = x0; minY = y0; maxX = x1; maxY = y1;
+    }
+
+    public int size() { return x.length; }
+    public double getX(int state) { return x[state]; }
+    public double getY(int state) { return y[state]; }
+    public boolean isFinal() { return finished; }
+
+    public double getMinX() { return minX; }
+    public double getMinY() { return minY; }
+    public double getMaxX() { return maxX; }
+    public double getMaxY() { return maxY; }
+}
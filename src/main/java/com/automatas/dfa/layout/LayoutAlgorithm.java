@@ -0,0 +1,17 @@
+package com.automatas.dfa.layout;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Computes state coordinates for a {@link LayoutGraph}. Runs on a background
+ * thread (see {@link LayoutEngine}); implementations publish intermediate
+ * layouts through {@code progress} as they refine, and return early with
+ * {@code null} once {@code cancelled} reports true.
+ */
+public interface LayoutAlgorithm {
+    /** Name shown to the user, also used as cache key. */
+    String getName();
+
+    Layout layout(LayoutGraph graph, Consumer<Layout> progress, BooleanSupplier cancelled);
+}
@@ -0,0 +1,80 @@
+package com.automatas.dfa.layout;
+
+import com.automatas.dfa.model.DFA;
+
+import javax.swing.*;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs {@link LayoutAlgorithm}s on one background thread and caches the final
+ * layout per {@link DFA} instance and algorithm (weakly, so a discarded
+ * automaton frees its layouts). Starting a new computation cancels the
+ * previous one. Results, intermediate ones included, are delivered on the
+ * event dispatch thread, at most every {@link #PUBLISH_INTERVAL_MS} ms.
+ */
+public class LayoutEngine {
+    public static final long PUBLISH_INTERVAL_MS = 100;
+
+    private final Map<DFA, Map<String, Layout>> cache = Collections.synchronizedMap(new WeakHashMap<>());
+    private final AtomicInteger generation = new AtomicInteger();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "dfa-layout");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    /** Final layout already computed for {@code dfa} with {@code algorithm}, or {@code null}. */
+    public Layout cached(DFA dfa, LayoutAlgorithm algorithm) {
+        Map<String, Layout> byAlgorithm = cache.get(dfa);
+        synchronized (cache) {
+            return byAlgorithm != null ? byAlgorithm.get(algorithm.getName()) : null;
+        }
+    }
+
+    /**
+     * Lays out {@code dfa} in the background, cancelling any computation still
+     * running, and passes each published layout to {@code onUpdate} on the EDT.
+     * Must be called on the EDT.
+     */
+    public void compute(DFA dfa, LayoutAlgorithm algorithm, Consumer<Layout> onUpdate) {
+        int id = generation.incrementAndGet();
+        Layout done = cached(dfa, algorithm);
+        if (done != null) {
+            onUpdate.accept(done);
+            return;
+        }
+        // compilar aquí: DFA.getCompiled() no está pensado para llamarse desde varios hilos
+        LayoutGraph graph = LayoutGraph.of(dfa.getCompiled());
+        worker.execute(() -> {
+            if (generation.get() != id) return;
+            long[] last = {0};
+            Layout result = algorithm.layout(graph, l -> {
+                long now = System.currentTimeMillis();
+                if (now - last[0] < PUBLISH_INTERVAL_MS || generation.get() != id) return;
+                last[0] = now;
+                deliver(id, l, onUpdate);
+            }, () -> generation.get() != id);
+            if (result == null || generation.get() != id) return;
+            synchronized (cache) {
+                cache.computeIfAbsent(dfa, d -> new HashMap<>()).put(algorithm.getName(), result);
+            }
+            deliver(id, result, onUpdate);
+        });
+    }
+
+    /** Cancels the running computation, if any. */
+    public void cancel() {
+        generation.incrementAndGet();
+    }
+
+    private void deliver(int id, Layout layout, Consumer<Layout> onUpdate) {
+        SwingUtilities.invokeLater(() -> {
+            if (generation.get() == id) onUpdate.accept(layout);
+        });
+    }
+}
@@ -0,0 +1,88 @@
+package com.automatas.dfa.layout;
+
+import com.automatas.dfa.model.CompiledDFA;
+
+import java.util.Arrays;
+
+/**
+ * The state graph as seen by the layout algorithms: state ids, the start
+ * state and the distinct edges between different states (self-loops and
+ * parallel edges on several symbols count once), plus an undirected adjacency
+ * and the successor lists in CSR form.
+ */
+public final class LayoutGraph {
+    private final int nodeCount;
+    private final int start;
+    private final int[] edgeFrom;
+    private final int[] edgeTo;
+    private final int[] adjStart;
+    private final int[] adj;
+    private final int[] outStart;
+    private final int[] out;
+
+    LayoutGraph(int nodeCount, int start, int[] edgeFrom, int[] edgeTo) {
+        this.nodeCount = nodeCount;
+        this.start = start;
+        this.edgeFrom = edgeFrom;
+        this.edgeTo = edgeTo;
+        int m = edgeFrom.length;
+        adjStart = new int[nodeCount + 1];
+        for (int e = 0; e < m; e++) {
+            adjStart[edgeFrom[e] + 1]++;
+            adjStart[edgeTo[e] + 1]++;
+        }
+        for (int v = 0; v < nodeCount; v++) adjStart[v + 1] += adjStart[v];
+        adj = new int[2 * m];
+        int[] fill = Arrays.copyOf(adjStart, nodeCount);
+        for (int e = 0; e < m; e++) {
+            adj[fill[edgeFrom[e]]++] = edgeTo[e];
+            adj[fill[edgeTo[e]]++] = edgeFrom[e];
+        }
+        outStart = new int[nodeCount + 1];
+        for (int e = 0; e < m; e++) outStart[edgeFrom[e] + 1]++;
+        for (int v = 0; v < nodeCount; v++) outStart[v + 1] += outStart[v];
+        out = new int[m];
+        fill = Arrays.copyOf(outStart, nodeCount);
+        for (int e = 0; e < m; e++) out[fill[edgeFrom[e]]++] = edgeTo[e];
+    }
+
+    public static LayoutGraph of(CompiledDFA dfa) {
+        int n = dfa.getStateCount();
+        int k = dfa.getSymbolCount();
+        int[] from = new int[Math.max(16, n)];
+        int[] to = new int[from.length];
+        int m = 0;
+        // marca por estado origen para no repetir destinos
+        int[] seen = new int[n];
+        Arrays.fill(seen, -1);
+        for (int q = 0; q < n; q++) {
+            for (int a = 0; a < k; a++) {
+                int t = dfa.step(q, a);
+                if (t == CompiledDFA.DEAD || t == q || seen[t] == q) continue;
+                seen[t] = q;
+                if (m == from.length) {
+                    from = Arrays.copyOf(from, m * 2);
+                    to = Arrays.copyOf(to, m * 2);
+                }
+                from[m] = q;
+                to[m] = t;
+                m++;
+            }
+        }
+        return new LayoutGraph(n, dfa.getStartState(), Arrays.copyOf(from, m), Arrays.copyOf(to, m));
+    }
+
+    public int getNodeCount() { return nodeCount; }
+    public int getStart() { return start; }
+    public int getEdgeCount() { return edgeFrom.length; }
+    public int edgeFrom(int e) { return edgeFrom[e]; }
+    public int edgeTo(int e) { return edgeTo[e]; }
+
+    /** Neighbours of {@code v} (either direction) are {@code neighbour(adjStart(v) .. adjStart(v + 1) - 1)}. */
+    public int adjStart(int v) { return adjStart[v]; }
+    public int neighbour(int i) { return adj[i]; }
+
+    /** Successors of {@code v} are {@code successor(outStart(v) .. outStart(v + 1) - 1)}. */
+    public int outStart(int v) { return outStart[v]; }
+    public int successor(int i) { return out[i]; }
+}
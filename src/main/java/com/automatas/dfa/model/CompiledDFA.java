@@ -0,0 +1,714 @@
+package com.automatas.dfa.model;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.util.*;
+
+/**
+ * Dense, int-indexed form of a {@link DFA} used by the simulation engines.
+ * States and symbols are numbered in declaration order and accept states kept
+ * in a {@link BitSet}. Symbols whose columns are identical in every state share
+ * one equivalence class, so the flat row-major {@code int[]} table only has one
+ * column per class. The input is read by Unicode code point: ASCII maps to its
+ * class through a 128-entry array, and any other code point by binary search
+ * over sorted {@code [first, last]} ranges of equal class, so the alphabet can
+ * span all of Unicode at a cost proportional to its symbols. Class 0 is reserved
+ * for code points outside the alphabet and always leads to the {@link #DEAD} sentinel.
+ * <p>
+ * When some symbol is longer than one code point, text is read through a
+ * {@link SymbolTokenizer} instead: every text entry point splits the input into
+ * symbol ids by longest match as it goes and steps on those.
+ * <p>
+ * The same comma rule holds for every alphabet: a {@code ','} that is not
+ * itself a symbol only separates symbols and is skipped ({@code "a,b"} is read
+ * as {@code "ab"}); if {@code ','} is a symbol it is read as that symbol. With
+ * one-code-point symbols the separator gets a class whose column leads every
+ * state to itself, so the char and byte loops need no extra test.
+ * <p>
+ * The table is either a heap {@code int[]} or, for automata loaded with
+ * {@link CompiledDFAFile#load}, an {@link IntBuffer} view of the mapped file.
+ */
+public final class CompiledDFA {
+    /** Sentinel id for the implicit dead state (no transition defined). */
+    public static final int DEAD = -1;
+    /** Class of every code point that is not a single-code-point symbol. */
+    public static final int NO_CLASS = 0;
+
+    private final String[] stateNames;
+    private final String[] symbolNames;
+    private volatile Map<String, Integer> stateIds;
+    private volatile Map<String, Integer> symbolIds;
+    private final int start;
+    private final int classCount;
+    // table[state * classCount + class] -> state o DEAD; uno de los dos es null
+    private final int[] table;
+    private final IntBuffer mappedTable;
+    private final BitSet accept;
+    // símbolo -> clase de equivalencia
+    private final int[] symbolClass;
+    // punto de código -> clase: directo para ASCII; el resto por búsqueda binaria en
+    // rangos ordenados [rangeFirst[r], rangeLast[r]] -> rangeClass[r]; sin rango: NO_CLASS
+    private final int[] ascii = new int[ASCII];
+    private final int[] rangeFirst;
+    private final int[] rangeLast;
+    private final int[] rangeClass;
+    // destino de cada estado, calculado en el primer uso (ver analyze)
+    private volatile byte[] fate;
+    // null si todos los símbolos tienen un solo carácter
+    private final SymbolTokenizer tokenizer;
+    // ',' no es un símbolo: solo separa
+    private final boolean separator;
+
+    private static final byte LIVE = 0;
+    private static final byte REJECTING = 1;
+    private static final byte ABSORBING = 2;
+    private static final int ASCII = 128;
+    private static final String SEPARATOR = String.valueOf(SymbolTokenizer.SEPARATOR);
+    // representante de la clase del separador: columna identidad, no la de un símbolo
+    private static final int IDENTITY = -2;
+
+    /** {@code ranges} holds sorted, disjoint {@code first, last, class} triples. */
+    CompiledDFA(String[] stateNames, String[] symbolNames, int start, int classCount,
+                int[] table, IntBuffer mappedTable, BitSet accept, int[] symbolClass, int[] ranges) {
+        this.stateNames = stateNames;
+        this.symbolNames = symbolNames;
+        this.start = start;
+        this.classCount = classCount;
+        this.table = table;
+        this.mappedTable = mappedTable;
+        this.accept = accept;
+        this.symbolClass = symbolClass;
+        int r = ranges.length / 3;
+        rangeFirst = new int[r];
+        rangeLast = new int[r];
+        rangeClass = new int[r];
+        for (int i = 0; i < r; i++) {
+            rangeFirst[i] = ranges[3 * i];
+            rangeLast[i] = ranges[3 * i + 1];
+            rangeClass[i] = ranges[3 * i + 2];
+            for (int cp = rangeFirst[i]; cp <= rangeLast[i] && cp < ASCII; cp++) ascii[cp] = rangeClass[i];
+        }
+        boolean multiChar = false;
+        boolean commaIsSymbol = false;
+        for (String sym : symbolNames) {
+            multiChar |= !isCodePoint(sym);
+            commaIsSymbol |= sym.equals(SEPARATOR);
+        }
+        this.tokenizer = multiChar ? new SymbolTokenizer(symbolNames) : null;
+        this.separator = !commaIsSymbol;
+    }
+
+    public static CompiledDFA compile(DFA dfa) {
+        String[] stateNames = dfa.getStates().toArray(new String[0]);
+        String[] symbolNames = dfa.getSymbols().toArray(new String[0]);
+        Map<String, Integer> stateIds = indexOf(stateNames);
+        Map<String, Integer> symbolIds = indexOf(symbolNames);
+        int n = stateNames.length;
+        int k = symbolNames.length;
+
+        // columnas por símbolo: columns[symbol * n + state]
+        int[] columns;
+        try {
+            columns = new int[Math.multiplyExact(n, k)];
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("El AFD es demasiado grande para compilarse en una tabla");
+        }
+        int[] source = dfa.getTransitionTable();
+        if (source != null) {
+            for (int q = 0; q < n; q++) {
+                for (int sym = 0; sym < k; sym++) columns[sym * n + q] = source[q * k + sym];
+            }
+        } else {
+            Arrays.fill(columns, DEAD);
+            for (Map.Entry<String, Map<String, String>> e : dfa.getTransitions().entrySet()) {
+                int from = stateIds.get(e.getKey());
+                for (Map.Entry<String, String> e2 : e.getValue().entrySet()) {
+                    columns[symbolIds.get(e2.getKey()) * n + from] = stateIds.get(e2.getValue());
+                }
+            }
+        }
+
+        // clases de equivalencia: símbolos con la misma columna en todos los estados
+        int[] symbolClass = new int[k];
+        Map<Column, Integer> classes = new HashMap<>();
+        classes.put(new Column(new int[n], 0, n, true), NO_CLASS);
+        List<Integer> representatives = new ArrayList<>();
+        representatives.add(-1);
+        for (int sym = 0; sym < k; sym++) {
+            Column col = new Column(columns, sym * n, n, false);
+            Integer cls = classes.get(col);
+            if (cls == null) {
+                cls = representatives.size();
+                classes.put(col, cls);
+                representatives.add(sym);
+            }
+            symbolClass[sym] = cls;
+        }
+        // ',' sin ser símbolo: columna identidad (no consume estado), compartida si algún símbolo ya la tiene
+        int separatorClass = NO_CLASS;
+        if (!symbolIds.containsKey(SEPARATOR)) {
+            int[] identity = new int[n];
+            for (int q = 0; q < n; q++) identity[q] = q;
+            Column col = new Column(identity, 0, n, false);
+            Integer cls = classes.get(col);
+            if (cls == null) {
+                cls = representatives.size();
+                classes.put(col, cls);
+                representatives.add(IDENTITY);
+            }
+            separatorClass = cls;
+        }
+        int classCount = representatives.size();
+
+        int[] table = new int[Math.multiplyExact(n, classCount)];
+        for (int q = 0; q < n; q++) {
+            table[q * classCount + NO_CLASS] = DEAD;
+            for (int cls = 1; cls < classCount; cls++) {
+                int rep = representatives.get(cls);
+                table[q * classCount + cls] = rep == IDENTITY ? q : columns[rep * n + q];
+            }
+        }
+
+        BitSet accept = new BitSet(n);
+        for (String s : dfa.getAcceptStates()) accept.set(stateIds.get(s));
+
+        // símbolos de un punto de código ordenados, y los consecutivos de la misma clase fundidos en un rango
+        long[] points = new long[k + 1];
+        int count = 0;
+        for (int i = 0; i < k; i++) {
+            if (isCodePoint(symbolNames[i])) points[count++] = (long) symbolNames[i].codePointAt(0) << 32 | symbolClass[i];
+        }
+        if (separatorClass != NO_CLASS) points[count++] = (long) SymbolTokenizer.SEPARATOR << 32 | separatorClass;
+        Arrays.sort(points, 0, count);
+        int[] ranges = new int[3 * count];
+        int r = 0;
+        for (int i = 0; i < count; i++) {
+            int cp = (int) (points[i] >>> 32);
+            int cls = (int) points[i];
+            if (r > 0 && ranges[3 * r - 2] == cp - 1 && ranges[3 * r - 1] == cls) {
+                ranges[3 * r - 2] = cp;
+            } else {
+                ranges[3 * r] = cp;
+                ranges[3 * r + 1] = cp;
+                ranges[3 * r + 2] = cls;
+                r++;
+            }
+        }
+        CompiledDFA c = new CompiledDFA(stateNames, symbolNames, stateIds.get(dfa.getStartState()), classCount,
+                table, null, accept, symbolClass, Arrays.copyOf(ranges, 3 * r));
+        c.stateIds = stateIds;
+        c.symbolIds = symbolIds;
+        return c;
+    }
+
+    /** Column of the symbol table; the all-dead column matches every column full of {@link #DEAD}. */
+    private static final class Column {
+        private final int[] data;
+        private final int offset;
+        private final int length;
+        private final boolean allDead;
+        private final int hash;
+
+        Column(int[] data, int offset, int length, boolean allDead) {
+            this.data = data;
+            this.offset = offset;
+            this.length = length;
+            this.allDead = allDead;
+            int h = 1;
+            for (int i = 0; i < length; i++) h = 31 * h + (allDead ? DEAD : data[offset + i]);
+            this.hash = h;
+        }
+
+        private int get(int i) { return allDead ? DEAD : data[offset + i]; }
+
+        @Override public int hashCode() { return hash; }
+
+        @Override public boolean equals(Object o) {
+            if (!(o instanceof Column)) return false;
+            Column c = (Column) o;
+            if (c.hash != hash || c.length != length) return false;
+            for (int i = 0; i < length; i++) {
+                if (get(i) != c.get(i)) return false;
+            }
+            return true;
+        }
+    }
+
+    private static boolean isCodePoint(String s) {
+        return !s.isEmpty() && Character.charCount(s.codePointAt(0)) == s.length();
+    }
+
+    private static Map<String, Integer> indexOf(String[] names) {
+        Map<String, Integer> map = new HashMap<>(names.length * 2);
+        for (int i = 0; i < names.length; i++) map.put(names[i], i);
+        return map;
+    }
+
+    public int getStartState() { return start; }
+    public int getStateCount() { return stateNames.length; }
+    public int getSymbolCount() { return symbolNames.length; }
+    public int getClassCount() { return classCount; }
+
+    /**
+     * Tokenizer of the alphabet, or {@code null} when every symbol is a single
+     * char and each char of the input is one step.
+     */
+    public SymbolTokenizer getTokenizer() { return tokenizer; }
+
+    /**
+     * Whether every symbol is a single BMP char, so that each char of the input
+     * is exactly one step. Engines that step char by char require it.
+     */
+    public boolean isCharAlphabet() {
+        return tokenizer == null && (rangeLast.length == 0 || rangeLast[rangeLast.length - 1] <= Character.MAX_VALUE);
+    }
+
+    /** Whether {@code c} only separates symbols (a {@code ','} that is not a symbol) and is not a step. */
+    public boolean isSeparator(char c) {
+        return c == SymbolTokenizer.SEPARATOR && separator;
+    }
+
+    /** Returns the state name for an id, or {@code null} for {@link #DEAD}. */
+    public String getStateName(int state) {
+        return state == DEAD ? null : stateNames[state];
+    }
+
+    public String getSymbolName(int symbol) { return symbolNames[symbol]; }
+
+    /** Returns the id of a state, or {@link #DEAD} if the name is {@code null} or unknown. */
+    public int stateId(String name) {
+        Map<String, Integer> ids = stateIds;
+        if (ids == null) stateIds = ids = indexOf(stateNames);
+        Integer id = name == null ? null : ids.get(name);
+        return id == null ? DEAD : id;
+    }
+
+    /** Returns the id of a symbol, or {@link #DEAD} if it is not part of the alphabet. */
+    public int symbolId(String name) {
+        Map<String, Integer> ids = symbolIds;
+        if (ids == null) symbolIds = ids = indexOf(symbolNames);
+        Integer id = name == null ? null : ids.get(name);
+        return id == null ? DEAD : id;
+    }
+
+    /** Equivalence class of a BMP character; {@link #NO_CLASS} if it is not a symbol. */
+    public int classOf(char c) {
+        return c < ASCII ? ascii[c] : rangeClassOf(c);
+    }
+
+    /** Equivalence class of a code point; {@link #NO_CLASS} if it is not a symbol or is {@link Utf8#MALFORMED}. */
+    public int classOfCodePoint(int codePoint) {
+        if (codePoint < ASCII) return codePoint >= 0 ? ascii[codePoint] : NO_CLASS;
+        return rangeClassOf(codePoint);
+    }
+
+    private int rangeClassOf(int codePoint) {
+        int lo = 0;
+        int hi = rangeFirst.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (rangeFirst[mid] <= codePoint) lo = mid + 1;
+            else hi = mid - 1;
+        }
+        // hi: último rango que empieza en o antes del punto de código
+        return hi >= 0 && codePoint <= rangeLast[hi] ? rangeClass[hi] : NO_CLASS;
+    }
+
+    /** Code point at {@code i}, pairing surrogates only inside {@code [i, to)}. */
+    private static int codePointAt(CharSequence input, int i, int to) {
+        char c = input.charAt(i);
+        if (Character.isHighSurrogate(c) && i + 1 < to) {
+            char d = input.charAt(i + 1);
+            if (Character.isLowSurrogate(d)) return Character.toCodePoint(c, d);
+        }
+        return c;
+    }
+
+    public int classOfSymbol(int symbol) { return symbolClass[symbol]; }
+
+    public int step(int state, int symbol) {
+        if (state < 0 || symbol < 0) return DEAD;
+        return next(state, symbolClass[symbol]);
+    }
+
+    public int step(int state, char c) {
+        if (state < 0) return DEAD;
+        return next(state, classOf(c));
+    }
+
+    private int next(int state, int cls) {
+        int i = state * classCount + cls;
+        return table != null ? table[i] : mappedTable.get(i);
+    }
+
+    /** Runs the whole input from the start state and returns the final state id. */
+    public int run(CharSequence input) {
+        return runFrom(start, input, 0, input.length());
+    }
+
+    /** Runs {@code input[from, to)} starting at {@code state} and returns the resulting state. */
+    public int runFrom(int state, CharSequence input, int from, int to) {
+        if (state < 0) return DEAD;
+        if (tokenizer != null) return runTokens(state, input, from, to, false);
+        final int[] t = table;
+        final int[] a = ascii;
+        final int k = classCount;
+        int s = state;
+        for (int i = from; i < to; ) {
+            char ch = input.charAt(i);
+            int cls;
+            if (ch < ASCII) {
+                cls = a[ch];
+                i++;
+            } else {
+                int cp = codePointAt(input, i, to);
+                cls = rangeClassOf(cp);
+                i += Character.charCount(cp);
+            }
+            s = t != null ? t[s * k + cls] : mappedTable.get(s * k + cls);
+            if (s < 0) return DEAD;
+        }
+        return s;
+    }
+
+    /**
+     * Allocation-free accept check: runs {@code input} without recording the path.
+     * Stops as soon as the outcome is decided: in a state that cannot reach an
+     * accept state, or in an accept-absorbing one, where only the alphabet
+     * membership of the rest of the input is checked.
+     */
+    public boolean accepts(CharSequence input) {
+        final int[] t = table;
+        final int[] a = ascii;
+        final byte[] f = fate();
+        final int k = classCount;
+        final int len = input.length();
+        if (tokenizer != null) return isAccept(runTokens(start, input, 0, len, true));
+        int s = start;
+        if (f[s] != LIVE) return decide(s, input, 0, len);
+        for (int i = 0; i < len; ) {
+            char ch = input.charAt(i);
+            int cls;
+            if (ch < ASCII) {
+                cls = a[ch];
+                i++;
+            } else {
+                int cp = codePointAt(input, i, len);
+                cls = rangeClassOf(cp);
+                i += Character.charCount(cp);
+            }
+            s = t != null ? t[s * k + cls] : mappedTable.get(s * k + cls);
+            if (s < 0) return false;
+            if (f[s] != LIVE) return decide(s, input, i, len);
+        }
+        return accept.get(s);
+    }
+
+    public boolean accepts(char[] input, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, input.length);
+        if (tokenizer != null) return accepts(CharBuffer.wrap(input, offset, length));
+        final int[] t = table;
+        final int[] a = ascii;
+        final byte[] f = fate();
+        final int k = classCount;
+        final int end = offset + length;
+        int s = start;
+        if (f[s] != LIVE) return decide(s, input, offset, end);
+        for (int i = offset; i < end; ) {
+            char ch = input[i];
+            int cls;
+            if (ch < ASCII) {
+                cls = a[ch];
+                i++;
+            } else {
+                int cp = Character.codePointAt(input, i, end);
+                cls = rangeClassOf(cp);
+                i += Character.charCount(cp);
+            }
+            s = t != null ? t[s * k + cls] : mappedTable.get(s * k + cls);
+            if (s < 0) return false;
+            if (f[s] != LIVE) return decide(s, input, i, end);
+        }
+        return accept.get(s);
+    }
+
+    /**
+     * Same as {@link #accepts(CharSequence)} over UTF-8 encoded bytes. Malformed
+     * sequences and code points outside the alphabet lead to the dead state.
+     */
+    public boolean accepts(byte[] input, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, input.length);
+        if (tokenizer != null) return isAccept(runFrom(start, ByteBuffer.wrap(input), offset, length));
+        final byte[] f = fate();
+        int s = start;
+        int i = offset;
+        int end = offset + length;
+        while (i < end && s != DEAD) {
+            if (f[s] != LIVE) return f[s] == ABSORBING && inAlphabet(input, i, end);
+            int b = input[i];
+            if (b >= 0) {
+                s = step(s, (char) b);
+                i++;
+                continue;
+            }
+            // secuencia multibyte: decodificar el punto de código sin crear objetos
+            int n = Utf8.sequenceLength(b);
+            if (n == 0 || i + n > end) return false;
+            s = stepCodePoint(s, Utf8.decode(input, i, n));
+            i += n;
+        }
+        return isAccept(s);
+    }
+
+    /**
+     * UTF-8 variant reading with absolute gets, so a memory-mapped buffer can be
+     * shared between threads. The buffer position is not modified.
+     */
+    public boolean accepts(ByteBuffer input, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, input.limit());
+        if (tokenizer != null) return isAccept(runFrom(start, input, offset, length));
+        final byte[] f = fate();
+        int s = start;
+        int i = offset;
+        int end = offset + length;
+        while (i < end && s != DEAD) {
+            if (f[s] != LIVE) return f[s] == ABSORBING && inAlphabet(input, i, end);
+            int b = input.get(i);
+            if (b >= 0) {
+                s = step(s, (char) b);
+                i++;
+                continue;
+            }
+            int n = Utf8.sequenceLength(b);
+            if (n == 0 || i + n > end) return false;
+            s = stepCodePoint(s, Utf8.decode(input, i, n));
+            i += n;
+        }
+        return isAccept(s);
+    }
+
+    /**
+     * Runs UTF-8 bytes starting at {@code state} and returns the resulting state.
+     * Used by the engines that process a buffer in pieces.
+     */
+    public int runFrom(int state, ByteBuffer input, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, input.limit());
+        if (tokenizer != null) {
+            CharSequence text = Utf8.decodeChars(input, offset, length);
+            return text == null ? DEAD : runTokens(state, text, 0, text.length(), false);
+        }
+        int s = state;
+        int i = offset;
+        int end = offset + length;
+        while (i < end && s != DEAD) {
+            int b = input.get(i);
+            if (b >= 0) {
+                s = step(s, (char) b);
+                i++;
+                continue;
+            }
+            int n = Utf8.sequenceLength(b);
+            if (n == 0 || i + n > end) return DEAD;
+            s = stepCodePoint(s, Utf8.decode(input, i, n));
+            i += n;
+        }
+        return s;
+    }
+
+    /** Steps on a decoded code point; {@link Utf8#MALFORMED} leads to {@link #DEAD}. */
+    public int stepCodePoint(int state, int codePoint) {
+        if (state < 0) return DEAD;
+        return next(state, classOfCodePoint(codePoint));
+    }
+
+    public boolean isAccept(int state) {
+        return state >= 0 && accept.get(state);
+    }
+
+    /** True for {@link #DEAD} and for states from which no accept state is reachable. */
+    public boolean isRejecting(int state) {
+        return state < 0 || fate()[state] == REJECTING;
+    }
+
+    /**
+     * True for accept states that only lead to accept states of the same kind on
+     * every symbol: from here an input is accepted iff the rest of it only uses
+     * alphabet symbols.
+     */
+    public boolean isAcceptAbsorbing(int state) {
+        return state >= 0 && fate()[state] == ABSORBING;
+    }
+
+    /**
+     * Runs {@code input[from, to)} symbol by symbol through the tokenizer. With
+     * {@code early}, stops in states from which no accept state is reachable.
+     */
+    private int runTokens(int state, CharSequence input, int from, int to, boolean early) {
+        final SymbolTokenizer tk = tokenizer;
+        final byte[] f = early ? fate() : null;
+        int s = state;
+        int i = from;
+        while (i < to) {
+            if (s < 0 || early && f[s] == REJECTING) return DEAD;
+            if (tk.isSeparator(input.charAt(i))) { i++; continue; }
+            int m = tk.next(input, i, to);
+            if (m == SymbolTokenizer.NO_MATCH) return DEAD;
+            s = step(s, tk.symbolOf(m));
+            i += tk.lengthOf(m);
+        }
+        return s;
+    }
+
+    /**
+     * Whether {@code input[from, to)} is made only of symbols of the alphabet
+     * (split by longest match when some symbol has several chars).
+     */
+    public boolean inAlphabet(CharSequence input, int from, int to) {
+        if (tokenizer != null) {
+            for (int i = from; i < to; ) {
+                if (tokenizer.isSeparator(input.charAt(i))) { i++; continue; }
+                int m = tokenizer.next(input, i, to);
+                if (m == SymbolTokenizer.NO_MATCH) return false;
+                i += tokenizer.lengthOf(m);
+            }
+            return true;
+        }
+        for (int i = from; i < to; ) {
+            int cp = codePointAt(input, i, to);
+            if (classOfCodePoint(cp) == NO_CLASS) return false;
+            i += Character.charCount(cp);
+        }
+        return true;
+    }
+
+    private boolean decide(int state, CharSequence input, int from, int to) {
+        return fate[state] == ABSORBING && inAlphabet(input, from, to);
+    }
+
+    private boolean decide(int state, char[] input, int from, int to) {
+        if (fate[state] != ABSORBING) return false;
+        for (int i = from; i < to; ) {
+            int cp = Character.codePointAt(input, i, to);
+            if (classOfCodePoint(cp) == NO_CLASS) return false;
+            i += Character.charCount(cp);
+        }
+        return true;
+    }
+
+    private boolean inAlphabet(byte[] input, int i, int end) {
+        while (i < end) {
+            int b = input[i];
+            int n = b >= 0 ? 1 : Utf8.sequenceLength(b);
+            if (n == 0 || i + n > end) return false;
+            if (!inAlphabet(n == 1 ? b : Utf8.decode(input, i, n))) return false;
+            i += n;
+        }
+        return true;
+    }
+
+    private boolean inAlphabet(ByteBuffer input, int i, int end) {
+        while (i < end) {
+            int b = input.get(i);
+            int n = b >= 0 ? 1 : Utf8.sequenceLength(b);
+            if (n == 0 || i + n > end) return false;
+            if (!inAlphabet(n == 1 ? b : Utf8.decode(input, i, n))) return false;
+            i += n;
+        }
+        return true;
+    }
+
+    private boolean inAlphabet(int codePoint) {
+        return classOfCodePoint(codePoint) != NO_CLASS;
+    }
+
+    private byte[] fate() {
+        byte[] f = fate;
+        if (f == null) fate = f = analyze();
+        return f;
+    }
+
+    /**
+     * Classifies every state in O(states · classes): a reverse breadth-first
+     * search from the accept states finds the states that can still accept, and
+     * the accept-absorbing set is the largest set of accept states closed under
+     * every symbol class, obtained by peeling off states with an exit.
+     */
+    private byte[] analyze() {
+        int n = stateNames.length;
+        int k = classCount;
+        // predecesores en formato CSR (sin la columna NO_CLASS)
+        int[] inStart = new int[n + 1];
+        for (int q = 0; q < n; q++) {
+            for (int c = 1; c < k; c++) {
+                int t = next(q, c);
+                if (t >= 0) inStart[t + 1]++;
+            }
+        }
+        for (int q = 0; q < n; q++) inStart[q + 1] += inStart[q];
+        int[] pred = new int[inStart[n]];
+        int[] pos = Arrays.copyOf(inStart, n);
+        for (int q = 0; q < n; q++) {
+            for (int c = 1; c < k; c++) {
+                int t = next(q, c);
+                if (t >= 0) pred[pos[t]++] = q;
+            }
+        }
+
+        byte[] f = new byte[n];
+        Arrays.fill(f, REJECTING);
+        int[] queue = new int[n];
+        int tail = 0;
+        for (int q = accept.nextSetBit(0); q >= 0 && q < n; q = accept.nextSetBit(q + 1)) {
+            f[q] = LIVE;
+            queue[tail++] = q;
+        }
+        for (int head = 0; head < tail; head++) {
+            int t = queue[head];
+            for (int j = inStart[t]; j < inStart[t + 1]; j++) {
+                int p = pred[j];
+                if (f[p] == REJECTING) { f[p] = LIVE; queue[tail++] = p; }
+            }
+        }
+
+        boolean[] absorbing = new boolean[n];
+        tail = 0;
+        for (int q = accept.nextSetBit(0); q >= 0 && q < n; q = accept.nextSetBit(q + 1)) absorbing[q] = true;
+        for (int q = accept.nextSetBit(0); q >= 0 && q < n; q = accept.nextSetBit(q + 1)) {
+            for (int c = 1; c < k; c++) {
+                int t = next(q, c);
+                if (t < 0 || !accept.get(t)) { absorbing[q] = false; queue[tail++] = q; break; }
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int t = queue[head];
+            for (int j = inStart[t]; j < inStart[t + 1]; j++) {
+                int p = pred[j];
+                if (absorbing[p]) { absorbing[p] = false; queue[tail++] = p; }
+            }
+        }
+        for (int q = 0; q < n; q++) if (absorbing[q]) f[q] = ABSORBING;
+        return f;
+    }
+
+    // Acceso para CompiledDFAFile
+    String[] stateNames() { return stateNames; }
+    String[] symbolNames() { return symbolNames; }
+    int[] symbolClasses() { return symbolClass; }
+    /** Code-point ranges as {@code first, last, class} triples. */
+    int[] ranges() {
+        int[] r = new int[3 * rangeFirst.length];
+        for (int i = 0; i < rangeFirst.length; i++) {
+            r[3 * i] = rangeFirst[i];
+            r[3 * i + 1] = rangeLast[i];
+            r[3 * i + 2] = rangeClass[i];
+        }
+        return r;
+    }
+    BitSet acceptStates() { return accept; }
+
+    /** Raw table entry {@code index} (state * classCount + class). */
+    int tableEntry(int index) {
+        return table != null ? table[index] : mappedTable.get(index);
+    }
+}
@@ -0,0 +1,221 @@
+package com.automatas.dfa.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.zip.CRC32;
+
+/**
+ * Binary on-disk form of a {@link CompiledDFA}, little-endian:
+ * <pre>
+ *  header        magic "AFDB", version, states, symbols, classes, start,
+ *                range count, the offset of every section, then the length
+ *                and CRC-32 of the text definition it was compiled from
+ *  symbolClass   int[symbols]
+ *  ranges        int[3 * range count]: sorted first, last code point and class
+ *  table         int[states * classes], 8-byte aligned
+ *  accept        long[] bitmap over states
+ *  names         state names then symbol names, each int length + UTF-8
+ * </pre>
+ * {@link #load} maps the file and the automaton reads its transitions straight
+ * from the mapped table; only the small sections are copied to the heap. Every
+ * section, table entries included, is validated on load, so a damaged file is
+ * an {@link IOException} rather than an error while running. {@link #isCompiledFrom}
+ * compares the stored length and CRC-32 with the current text, so an edit
+ * is noticed whatever the file times say.
+ */
+public final class CompiledDFAFile {
+
+    /** Extension appended to the text definition ({@code afd.txt -> afd.txt.afdb}). */
+    public static final String EXTENSION = ".afdb";
+
+    private static final int MAGIC = 'A' | 'F' << 8 | 'D' << 16 | 'B' << 24;
+    private static final int VERSION = 3;
+    private static final int HEADER_SIZE = 96;
+
+    private CompiledDFAFile() {
+    }
+
+    /** Path of the binary file that accompanies a text definition. */
+    public static Path pathFor(Path textFile) {
+        return textFile.resolveSibling(textFile.getFileName() + EXTENSION);
+    }
+
+    /**
+     * Writes {@code dfa} atomically: first to a temporary sibling, then renamed.
+     * {@code source} is the text definition it was compiled from. The temporary
+     * file is written through the channel, not mapped, so nothing keeps it open
+     * when it is renamed (Windows refuses to rename a mapped file).
+     */
+    public static void write(CompiledDFA dfa, Path file, byte[] source) throws IOException {
+        String[] stateNames = dfa.stateNames();
+        String[] symbolNames = dfa.symbolNames();
+        int n = stateNames.length;
+        int k = symbolNames.length;
+        int classes = dfa.getClassCount();
+        int[] ranges = dfa.ranges();
+        long[] accept = dfa.acceptStates().toLongArray();
+        byte[][] names = new byte[n + k][];
+        long namesSize = 0;
+        for (int i = 0; i < n + k; i++) {
+            names[i] = (i < n ? stateNames[i] : symbolNames[i - n]).getBytes(StandardCharsets.UTF_8);
+            namesSize += 4 + names[i].length;
+        }
+
+        long symbolClassOffset = HEADER_SIZE;
+        long rangesOffset = symbolClassOffset + 4L * k;
+        long tableOffset = align(rangesOffset + 4L * ranges.length);
+        long acceptOffset = tableOffset + 4L * n * classes;
+        long namesOffset = acceptOffset + 8L * accept.length;
+        long length = namesOffset + namesSize;
+        if (length > Integer.MAX_VALUE)
+            throw new IOException("El AFD compilado excede el tamaño máximo de archivo (" + length + " bytes)");
+
+        ByteBuffer buf = ByteBuffer.allocate((int) length).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putInt(VERSION)
+                .putInt(n).putInt(k).putInt(classes).putInt(dfa.getStartState())
+                .putInt(ranges.length / 3).putInt(0)
+                .putLong(symbolClassOffset).putLong(rangesOffset).putLong(tableOffset)
+                .putLong(acceptOffset).putLong(namesOffset).putLong(length)
+                .putLong(source.length).putInt(crc(source)).putInt(0);
+        buf.position((int) symbolClassOffset);
+        for (int c : dfa.symbolClasses()) buf.putInt(c);
+        for (int v : ranges) buf.putInt(v);
+        buf.position((int) tableOffset);
+        for (int i = 0, size = n * classes; i < size; i++) buf.putInt(dfa.tableEntry(i));
+        for (long w : accept) buf.putLong(w);
+        for (byte[] name : names) buf.putInt(name.length).put(name);
+        buf.flip();
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buf.hasRemaining()) ch.write(buf);
+                ch.force(true);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // p. ej. el destino está mapeado por otro load() en Windows: no dejar el temporal
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+    }
+
+    /**
+     * Whether {@code file} is a compiled automaton of this version built from
+     * exactly {@code source}. Only the header is read; a missing or unreadable
+     * file is simply not up to date.
+     */
+    public static boolean isCompiledFrom(Path file, byte[] source) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (header.hasRemaining() && ch.read(header) >= 0) {
+                // leer hasta completar la cabecera o llegar al final
+            }
+        } catch (IOException e) {
+            return false;
+        }
+        return !header.hasRemaining()
+                && header.getInt(0) == MAGIC && header.getInt(4) == VERSION
+                && header.getLong(80) == source.length && header.getInt(88) == crc(source);
+    }
+
+    private static int crc(byte[] source) {
+        CRC32 crc = new CRC32();
+        crc.update(source);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Maps {@code file} read-only. The mapping stays valid after the channel is
+     * closed and is released when the automaton is garbage collected.
+     */
+    public static CompiledDFA load(Path file) throws IOException {
+        ByteBuffer buf;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE)
+                throw new IOException("Archivo de AFD compilado inválido: " + file);
+            buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        if (buf.getInt(0) != MAGIC) throw new IOException("No es un archivo de AFD compilado: " + file);
+        if (buf.getInt(4) != VERSION)
+            throw new IOException("Versión de AFD compilado no soportada: " + buf.getInt(4));
+        int n = buf.getInt(8);
+        int k = buf.getInt(12);
+        int classes = buf.getInt(16);
+        int start = buf.getInt(20);
+        int rangeCount = buf.getInt(24);
+        int symbolClassOffset = offset(buf, 32);
+        int rangesOffset = offset(buf, 40);
+        int tableOffset = offset(buf, 48);
+        int acceptOffset = offset(buf, 56);
+        int namesOffset = offset(buf, 64);
+        if (n < 1 || k < 0 || classes < 1 || start < 0 || start >= n || rangeCount < 0
+                || buf.getLong(72) != buf.capacity()
+                || symbolClassOffset + 4L * k > rangesOffset
+                || rangesOffset + 12L * rangeCount > tableOffset
+                || tableOffset + 4L * n * classes != acceptOffset
+                || acceptOffset > namesOffset)
+            throw new IOException("Archivo de AFD compilado corrupto: " + file);
+
+        int[] symbolClass = new int[k];
+        buf.slice(symbolClassOffset, 4 * k).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(symbolClass);
+        int[] ranges = new int[3 * rangeCount];
+        buf.slice(rangesOffset, 12 * rangeCount).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(ranges);
+        for (int c : symbolClass) if (c < 0 || c >= classes) throw new IOException("Archivo de AFD compilado corrupto: " + file);
+        // rangos ordenados, disjuntos y dentro de Unicode: la búsqueda binaria depende de ello
+        for (int r = 0, last = -1; r < rangeCount; r++) {
+            int first = ranges[3 * r];
+            int end = ranges[3 * r + 1];
+            int cls = ranges[3 * r + 2];
+            if (first <= last || end < first || end > Character.MAX_CODE_POINT || cls < 0 || cls >= classes)
+                throw new IOException("Archivo de AFD compilado corrupto: " + file);
+            last = end;
+        }
+        IntBuffer table = buf.slice(tableOffset, acceptOffset - tableOffset).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        // el CRC de la cabecera es del texto, no del binario: un destino fuera de rango se detecta aquí
+        for (int i = 0, size = table.limit(); i < size; i++) {
+            int t = table.get(i);
+            if (t != CompiledDFA.DEAD && (t < 0 || t >= n))
+                throw new IOException("Archivo de AFD compilado corrupto: " + file);
+        }
+        BitSet accept = BitSet.valueOf(buf.slice(acceptOffset, namesOffset - acceptOffset).order(ByteOrder.LITTLE_ENDIAN));
+
+        String[] stateNames = new String[n];
+        String[] symbolNames = new String[k];
+        int p = namesOffset;
+        try {
+            for (int i = 0; i < n + k; i++) {
+                int len = buf.getInt(p);
+                byte[] b = new byte[len];
+                buf.get(p + 4, b);
+                String name = new String(b, StandardCharsets.UTF_8);
+                if (i < n) stateNames[i] = name; else symbolNames[i - n] = name;
+                p += 4 + len;
+            }
+        } catch (IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IOException("Archivo de AFD compilado corrupto: " + file);
+        }
+        return new CompiledDFA(stateNames, symbolNames, start, classes, null, table, accept, symbolClass, ranges);
+    }
+
+    private static int offset(ByteBuffer buf, int at) throws IOException {
+        long v = buf.getLong(at);
+        if (v < HEADER_SIZE || v > buf.capacity()) throw new IOException("Archivo de AFD compilado corrupto");
+        return (int) v;
+    }
+
+    private static long align(long v) {
+        return (v + 7) & ~7L;
+    }
+}
@@ -1,5 +1,6 @@
 package com.automatas.dfa.model;
 
+import java.nio.ByteBuffer;
 import java.util.*;
 
 /**
@@ -10,8 +11,11 @@ public class DFA {
     private final Set<String> states;
     private final String startState;
     private final Set<String> acceptStates;
-    // transition: (state, symbol) -> state
-    private final Map<String, Map<String, String>> transitions;
+    // transition: (state, symbol) -> state; built lazily when created from a table
+    private volatile Map<String, Map<String, String>> transitions;
+    // tabla por símbolo table[state * |symbols| + symbol], solo en AFD creados desde tabla
+    private final int[] transitionTable;
+    private volatile CompiledDFA compiled;
 
     public DFA(Set<String> symbols,
                Set<String> states,
@@ -28,9 +32,62 @@ public class DFA {
             t.put(s, new LinkedHashMap<>(transitions.get(s)));
         }
         this.transitions = Collections.unmodifiableMap(t);
+        this.transitionTable = null;
         validate();
     }
 
+    /**
+     * Builds a DFA directly from int-indexed data, without intermediate maps.
+     * {@code transitionTable[state * symbols.size() + symbol]} holds the target
+     * state index or {@link CompiledDFA#DEAD}. Names must be distinct.
+     */
+    public DFA(List<String> symbols,
+               List<String> states,
+               int startState,
+               BitSet acceptStates,
+               int[] transitionTable) {
+        this.symbols = Collections.unmodifiableSet(new LinkedHashSet<>(symbols));
+        this.states = Collections.unmodifiableSet(new LinkedHashSet<>(states));
+        if (this.symbols.size() != symbols.size() || this.states.size() != states.size())
+            throw new IllegalArgumentException("Nombres de estados o símbolos repetidos");
+        if (startState < 0 || startState >= states.size())
+            throw new IllegalArgumentException("Estado inicial no pertenece al conjunto de estados");
+        if (acceptStates.length() > states.size())
+            throw new IllegalArgumentException("Al menos un estado de aceptación no pertenece al conjunto de estados");
+        if (transitionTable.length != (long) states.size() * symbols.size())
+            throw new IllegalArgumentException("La tabla de transiciones no coincide con estados × símbolos");
+        for (int t : transitionTable) {
+            if (t < CompiledDFA.DEAD || t >= states.size())
+                throw new IllegalArgumentException("Transición hacia estado desconocido: " + t);
+        }
+        this.startState = states.get(startState);
+        Set<String> accept = new LinkedHashSet<>();
+        for (int i = acceptStates.nextSetBit(0); i >= 0; i = acceptStates.nextSetBit(i + 1)) accept.add(states.get(i));
+        this.acceptStates = Collections.unmodifiableSet(accept);
+        this.transitionTable = transitionTable;
+    }
+
+    /**
+     * Wraps an already compiled automaton (e.g. one mapped by
+     * {@link CompiledDFAFile#load}); the transition maps are built only if asked for.
+     */
+    public DFA(CompiledDFA compiled) {
+        Set<String> sts = new LinkedHashSet<>();
+        for (int q = 0; q < compiled.getStateCount(); q++) sts.add(compiled.getStateName(q));
+        Set<String> syms = new LinkedHashSet<>();
+        for (int a = 0; a < compiled.getSymbolCount(); a++) syms.add(compiled.getSymbolName(a));
+        Set<String> accept = new LinkedHashSet<>();
+        for (int q = 0; q < compiled.getStateCount(); q++) if (compiled.isAccept(q)) accept.add(compiled.getStateName(q));
+        if (sts.size() != compiled.getStateCount() || syms.size() != compiled.getSymbolCount())
+            throw new IllegalArgumentException("Nombres de estados o símbolos repetidos");
+        this.symbols = Collections.unmodifiableSet(syms);
+        this.states = Collections.unmodifiableSet(sts);
+        this.startState = compiled.getStateName(compiled.getStartState());
+        this.acceptStates = Collections.unmodifiableSet(accept);
+        this.transitionTable = null;
+        this.compiled = compiled;
+    }
+
     private void validate() throws IllegalArgumentException {
         if (!states.contains(startState))
             throw new IllegalArgumentException("Estado inicial no pertenece al conjunto de estados");
@@ -55,12 +112,70 @@ public class DFA {
     public Set<String> getStates() { return states; }
     public String getStartState() { return startState; }
     public Set<String> getAcceptStates() { return acceptStates; }
-    public Map<String, Map<String, String>> getTransitions() { return transitions; }
+    public Map<String, Map<String, String>> getTransitions() {
+        Map<String, Map<String, String>> t = transitions;
+        if (t == null) {
+            t = buildTransitions();
+            transitions = t;
+        }
+        return t;
+    }
+
+    private Map<String, Map<String, String>> buildTransitions() {
+        String[] sts = states.toArray(new String[0]);
+        String[] syms = symbols.toArray(new String[0]);
+        Map<String, Map<String, String>> t = new LinkedHashMap<>();
+        for (int q = 0; q < sts.length; q++) {
+            Map<String, String> row = null;
+            for (int a = 0; a < syms.length; a++) {
+                int to = transitionTable != null ? transitionTable[q * syms.length + a] : compiled.step(q, a);
+                if (to == CompiledDFA.DEAD) continue;
+                if (row == null) row = new LinkedHashMap<>();
+                row.put(syms[a], sts[to]);
+            }
+            if (row != null) t.put(sts[q], Collections.unmodifiableMap(row));
+        }
+        return Collections.unmodifiableMap(t);
+    }
+
+    /** Int-indexed table this DFA was built from, or {@code null} if it was built from maps. */
+    int[] getTransitionTable() { return transitionTable; }
+
+    /** Returns the int-indexed form of this automaton, compiled on first use. */
+    public CompiledDFA getCompiled() {
+        CompiledDFA c = compiled;
+        if (c == null) {
+            c = CompiledDFA.compile(this);
+            compiled = c;
+        }
+        return c;
+    }
 
     public String step(String currentState, String symbol) {
-        Map<String, String> map = transitions.get(currentState);
-        if (map == null) return null;
-        return map.get(symbol);
+        CompiledDFA c = getCompiled();
+        return c.getStateName(c.step(c.stateId(currentState), c.symbolId(symbol)));
+    }
+
+    /**
+     * Fast accept/reject check on the compiled table. Allocates nothing and does
+     * not record the path; use {@link DFASimulation} for step-by-step tracking.
+     */
+    public boolean accepts(CharSequence input) {
+        return getCompiled().accepts(input);
+    }
+
+    public boolean accepts(char[] input, int offset, int length) {
+        return getCompiled().accepts(input, offset, length);
+    }
+
+    /** UTF-8 variant of {@link #accepts(CharSequence)}. */
+    public boolean accepts(byte[] input, int offset, int length) {
+        return getCompiled().accepts(input, offset, length);
+    }
+
+    /** UTF-8 variant over a (possibly memory-mapped) buffer; uses absolute gets only. */
+    public boolean accepts(ByteBuffer input, int offset, int length) {
+        return getCompiled().accepts(input, offset, length);
     }
 
     public boolean isAccept(String state) {
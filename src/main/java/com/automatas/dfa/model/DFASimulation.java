@@ -1,29 +1,85 @@
 package com.automatas.dfa.model;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
 import java.util.List;
 
+/**
+ * Step-by-step run of one input. The path is not stored: only the state id
+ * and char offset every {@code interval} ≈ √n steps (checkpoints) plus the
+ * states of one block between two checkpoints, recomputed from its checkpoint
+ * when needed. History therefore takes O(√n) ints however long the input is,
+ * while stepping back, seeking and reading {@link #getPathStates()} near the
+ * current position stay cheap.
+ * <p>
+ * A step consumes one symbol: one char, one code point when the alphabet has
+ * symbols outside the BMP, or with multi-character symbols the longest symbol
+ * matched by the automaton's {@link SymbolTokenizer}. Symbols are read from the
+ * text as the run goes, starting at the offset kept with each checkpoint;
+ * nothing is split up front. Separators ({@link CompiledDFA#isSeparator}) are
+ * skipped and are not steps.
+ */
 public class DFASimulation {
+    private static final int MIN_INTERVAL = 64;
+
     private final DFA dfa;
+    private final CompiledDFA compiled;
     private final String input;
-    private final List<String> pathStates; // includes start state and subsequent states after each symbol
+    // null si cada símbolo es un solo punto de código
+    private final SymbolTokenizer tokenizer;
+    // sin tokenizador: un paso por punto de código (alfabeto fuera del BMP) o por char
+    private final boolean codePoints;
+    private final int length;
+    private final int interval;
+    // checkpoints[j]: estado tras consumir j * interval símbolos, y checkOffsets[j] el carácter
+    // donde termina el último de ellos; válidos los primeros 'known'
+    private final int[] checkpoints;
+    private final int[] checkOffsets;
+    private int known;
+    // estados y desplazamientos de block[blockStart .. blockStart + blockLength), recalculados desde un checkpoint
+    private final int[] block;
+    private final int[] blockOffsets;
+    private int blockStart = -1;
+    private int blockLength;
     private int index; // next symbol index to consume
+    private int offset; // char offset where the consumed symbols end
+    private int state; // dead transition: CompiledDFA.DEAD, shown as null in getPathStates()
+    // fin del último símbolo leído por read
+    private int readEnd;
+    private final List<String> pathStates = new AbstractList<String>() {
+        @Override public String get(int i) {
+            if (i < 0 || i > index) throw new IndexOutOfBoundsException(i);
+            return compiled.getStateName(stateAt(i));
+        }
+        @Override public int size() { return index + 1; }
+    };
 
     public DFASimulation(DFA dfa, String input) {
         this.dfa = dfa;
+        this.compiled = dfa.getCompiled();
         this.input = input != null ? input : "";
-        this.pathStates = new ArrayList<>();
+        this.tokenizer = compiled.getTokenizer();
+        this.codePoints = tokenizer == null && !compiled.isCharAlphabet();
+        int n = countSymbols();
+        this.length = n;
+        this.interval = Math.max(MIN_INTERVAL, (int) Math.ceil(Math.sqrt(n)));
+        this.checkpoints = new int[n / interval + 1];
+        this.checkOffsets = new int[n / interval + 1];
+        this.block = new int[interval + 1];
+        this.blockOffsets = new int[interval + 1];
         reset();
     }
 
     public void reset() {
-        pathStates.clear();
-        pathStates.add(dfa.getStartState());
+        checkpoints[0] = compiled.getStartState();
+        checkOffsets[0] = 0;
+        known = Math.max(known, 1);
         index = 0;
+        offset = 0;
+        state = checkpoints[0];
     }
 
     public boolean canStepForward() {
-        return index < input.length();
+        return index < length;
     }
 
     public boolean canStepBack() {
@@ -32,33 +88,153 @@ public class DFASimulation {
 
     public boolean stepForward() {
         if (!canStepForward()) return false;
-        String current = pathStates.get(pathStates.size() - 1);
-        String sym = String.valueOf(input.charAt(index));
-        String next = dfa.step(current, sym);
-        if (next == null) {
-            // dead transition: stay in null/"∅" state representation
-            pathStates.add(null);
-        } else {
-            pathStates.add(next);
-        }
+        state = read(state, offset);
+        offset = readEnd;
         index++;
+        record(index, state, offset);
         return true;
     }
 
     public boolean stepBack() {
         if (!canStepBack()) return false;
-        pathStates.remove(pathStates.size() - 1);
+        locate(index - 1);
         index--;
+        state = block[index - blockStart];
+        offset = blockOffsets[index - blockStart];
         return true;
     }
 
+    /**
+     * Moves to {@code target} (clamped to {@code [0, }{@link #getLength()}{@code ]}). Reads
+     * on from the nearest known checkpoint, recording new checkpoints on the
+     * way; no intermediate state is kept.
+     */
+    public void seek(int target) {
+        target = Math.max(0, Math.min(length, target));
+        int j = Math.min(target / interval, known - 1);
+        int at = j * interval;
+        int s = checkpoints[j];
+        int pos = checkOffsets[j];
+        if (index <= target && index > at) {
+            // seguir desde la posición actual, que está más cerca
+            at = index;
+            s = state;
+            pos = offset;
+        }
+        while (at < target) {
+            s = read(s, pos);
+            pos = readEnd;
+            record(++at, s, pos);
+        }
+        index = target;
+        state = s;
+        offset = pos;
+    }
+
+    private void record(int at, int s, int pos) {
+        if (at % interval == 0 && at / interval == known) {
+            checkpoints[known] = s;
+            checkOffsets[known++] = pos;
+        }
+    }
+
+    /** State id after {@code i} symbols, for {@code i <= index}. */
+    private int stateAt(int i) {
+        if (i == index) return state;
+        locate(i);
+        return block[i - blockStart];
+    }
+
+    /**
+     * Loads the block that starts at the checkpoint before position {@code i}
+     * (so it also holds {@code i + 1} when {@code i < length}), reading on to
+     * that checkpoint if it is not known yet.
+     */
+    private void locate(int i) {
+        int j = i / interval;
+        if (blockStart == j * interval) return;
+        while (known <= j) {
+            int s = checkpoints[known - 1];
+            int pos = checkOffsets[known - 1];
+            for (int k = 0; k < interval; k++) {
+                s = read(s, pos);
+                pos = readEnd;
+            }
+            checkpoints[known] = s;
+            checkOffsets[known++] = pos;
+        }
+        blockStart = j * interval;
+        blockLength = Math.min(interval, length - blockStart) + 1;
+        int s = checkpoints[j];
+        int pos = checkOffsets[j];
+        block[0] = s;
+        blockOffsets[0] = pos;
+        for (int k = 1; k < blockLength; k++) {
+            s = read(s, pos);
+            pos = readEnd;
+            block[k] = s;
+            blockOffsets[k] = pos;
+        }
+    }
+
+    /**
+     * Reads the symbol at or after {@code pos} (skipping separators) from state
+     * {@code s} and returns the next state; {@link #readEnd} is left at its end.
+     * Text where no symbol starts is one char that leads to {@link CompiledDFA#DEAD}.
+     */
+    private int read(int s, int pos) {
+        int start = skipSeparators(pos);
+        if (tokenizer == null) {
+            if (!codePoints) {
+                readEnd = start + 1;
+                return compiled.step(s, input.charAt(start));
+            }
+            int cp = input.codePointAt(start);
+            readEnd = start + Character.charCount(cp);
+            return compiled.stepCodePoint(s, cp);
+        }
+        int m = tokenizer.next(input, start, input.length());
+        if (m == SymbolTokenizer.NO_MATCH) {
+            readEnd = start + 1;
+            return CompiledDFA.DEAD;
+        }
+        readEnd = start + tokenizer.lengthOf(m);
+        return compiled.step(s, tokenizer.symbolOf(m));
+    }
+
+    private int skipSeparators(int pos) {
+        while (pos < input.length() && compiled.isSeparator(input.charAt(pos))) pos++;
+        return pos;
+    }
+
+    /** Number of symbols in the input, in one pass that stores nothing. */
+    private int countSymbols() {
+        int n = 0;
+        for (int pos = skipSeparators(0); pos < input.length(); pos = skipSeparators(readEnd)) {
+            read(CompiledDFA.DEAD, pos);
+            n++;
+        }
+        return n;
+    }
+
     public int getIndex() { return index; }
+
+    /** Number of symbols (steps) in the input. */
+    public int getLength() { return length; }
+
+    /** Text of the {@code i}-th symbol of the input, as read from it. */
+    public String getSymbol(int i) {
+        if (i < 0 || i >= length) throw new IndexOutOfBoundsException(i);
+        locate(i);
+        return input.substring(skipSeparators(blockOffsets[i - blockStart]), blockOffsets[i + 1 - blockStart]);
+    }
+
     public String getInput() { return input; }
+    public DFA getDfa() { return dfa; }
     public List<String> getPathStates() { return pathStates; }
 
     public boolean isAccepted() {
-        if (index != input.length()) return false; // only when finished
-        String last = pathStates.get(pathStates.size() - 1);
-        return last != null && dfa.isAccept(last);
+        if (index != length) return false; // only when finished
+        return compiled.isAccept(state);
     }
 }
@@ -0,0 +1,80 @@
+package com.automatas.dfa.model;
+
+import java.util.*;
+
+/**
+ * Nondeterministic Finite Automaton with ε-transitions, int-indexed. Edges are
+ * kept grouped by source state (CSR): the edges of state {@code q} are
+ * {@code [edgeStart[q], edgeStart[q + 1])}, each with a symbol id (or
+ * {@link #EPSILON}) and a target state.
+ */
+public class NFA {
+    public static final int EPSILON = -1;
+
+    private final List<String> symbols;
+    private final List<String> states;
+    private final int startState;
+    private final BitSet acceptStates;
+    private final int[] edgeStart;
+    private final int[] edgeSymbol;
+    private final int[] edgeTarget;
+
+    /**
+     * Builds the automaton from parallel edge arrays: edge {@code i} goes from
+     * {@code from[i]} to {@code to[i]} on symbol {@code symbol[i]} or on ε.
+     */
+    public NFA(List<String> symbols, List<String> states, int startState, BitSet acceptStates,
+               int[] from, int[] symbol, int[] to) {
+        this.symbols = Collections.unmodifiableList(new ArrayList<>(symbols));
+        this.states = Collections.unmodifiableList(new ArrayList<>(states));
+        int n = states.size();
+        if (new HashSet<>(symbols).size() != symbols.size() || new HashSet<>(states).size() != n)
+            throw new IllegalArgumentException("Nombres de estados o símbolos repetidos");
+        if (startState < 0 || startState >= n)
+            throw new IllegalArgumentException("Estado inicial no pertenece al conjunto de estados");
+        if (acceptStates.length() > n)
+            throw new IllegalArgumentException("Al menos un estado de aceptación no pertenece al conjunto de estados");
+        if (from.length != symbol.length || from.length != to.length)
+            throw new IllegalArgumentException("Las listas de transiciones no tienen la misma longitud");
+        this.startState = startState;
+        this.acceptStates = (BitSet) acceptStates.clone();
+
+        int m = from.length;
+        edgeStart = new int[n + 1];
+        for (int i = 0; i < m; i++) {
+            if (from[i] < 0 || from[i] >= n)
+                throw new IllegalArgumentException("Transición desde estado desconocido: " + from[i]);
+            if (to[i] < 0 || to[i] >= n)
+                throw new IllegalArgumentException("Transición hacia estado desconocido: " + to[i]);
+            if (symbol[i] < EPSILON || symbol[i] >= symbols.size())
+                throw new IllegalArgumentException("Símbolo desconocido en transición: " + symbol[i]);
+            edgeStart[from[i] + 1]++;
+        }
+        for (int q = 0; q < n; q++) edgeStart[q + 1] += edgeStart[q];
+        edgeSymbol = new int[m];
+        edgeTarget = new int[m];
+        int[] pos = Arrays.copyOf(edgeStart, n);
+        for (int i = 0; i < m; i++) {
+            int p = pos[from[i]]++;
+            edgeSymbol[p] = symbol[i];
+            edgeTarget[p] = to[i];
+        }
+    }
+
+    public List<String> getSymbols() { return symbols; }
+    public List<String> getStates() { return states; }
+    public int getStartState() { return startState; }
+    public int getStateCount() { return states.size(); }
+    public int getSymbolCount() { return symbols.size(); }
+
+    public boolean isAccept(int state) {
+        return acceptStates.get(state);
+    }
+
+    /** First edge index of {@code state}; its edges end at {@code edgeStart(state + 1)}. */
+    public int edgeStart(int state) { return edgeStart[state]; }
+
+    public int edgeSymbol(int edge) { return edgeSymbol[edge]; }
+
+    public int edgeTarget(int edge) { return edgeTarget[edge]; }
+}
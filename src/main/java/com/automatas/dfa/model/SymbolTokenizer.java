@@ -0,0 +1,118 @@
+package com.automatas.dfa.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Splits text into symbol ids for alphabets with multi-character symbols
+ * ({@code if}, {@code ab}, ...). The symbol names form a trie stored in flat
+ * arrays; at every position the longest symbol is taken (maximal munch), so
+ * each step reads at most {@link #getMaxLength()} chars and a whole input is
+ * split in one forward pass without backtracking. A {@code ','} that is not
+ * itself a symbol only separates symbols, so {@code "a,b"} can be told apart
+ * from {@code "ab"} when both are symbols.
+ */
+public final class SymbolTokenizer {
+    /** Returned by {@link #next} when no symbol starts at the position. */
+    public static final int NO_MATCH = 0;
+    public static final char SEPARATOR = ',';
+
+    // trie en CSR: los hijos de node son edgeChar/child[childStart[node] .. childStart[node + 1]), ordenados por carácter
+    private final int[] childStart;
+    private final char[] edgeChar;
+    private final int[] child;
+    // símbolo que termina en el nodo (o DEAD) y su longitud
+    private final int[] symbol;
+    private final int[] depth;
+    private final int maxLength;
+    private final boolean separator;
+
+    public SymbolTokenizer(String[] symbols) {
+        Node root = new Node();
+        int max = 0;
+        boolean commaIsSymbol = false;
+        for (int a = 0; a < symbols.length; a++) {
+            String name = symbols[a];
+            if (name.isEmpty()) continue;
+            if (name.equals(String.valueOf(SEPARATOR))) commaIsSymbol = true;
+            Node n = root;
+            for (int i = 0; i < name.length(); i++) n = n.children.computeIfAbsent(name.charAt(i), c -> new Node());
+            n.symbol = a;
+            max = Math.max(max, name.length());
+        }
+        this.maxLength = max;
+        this.separator = !commaIsSymbol;
+
+        // numerar en anchura: los hijos de cada nodo quedan contiguos
+        List<Node> order = new ArrayList<>();
+        order.add(root);
+        root.depth = 0;
+        for (int head = 0; head < order.size(); head++) {
+            Node n = order.get(head);
+            for (Node c : n.children.values()) {
+                c.depth = n.depth + 1;
+                order.add(c);
+            }
+        }
+        int count = order.size();
+        childStart = new int[count + 1];
+        edgeChar = new char[count - 1];
+        child = new int[count - 1];
+        symbol = new int[count];
+        depth = new int[count];
+        int next = 1;
+        for (int id = 0; id < count; id++) {
+            Node n = order.get(id);
+            symbol[id] = n.symbol;
+            depth[id] = n.depth;
+            childStart[id] = next - 1;
+            for (var e : n.children.entrySet()) {
+                edgeChar[next - 1] = e.getKey();
+                child[next - 1] = next;
+                next++;
+            }
+        }
+        childStart[count] = next - 1;
+    }
+
+    private static final class Node {
+        final TreeMap<Character, Node> children = new TreeMap<>();
+        int symbol = CompiledDFA.DEAD;
+        int depth;
+    }
+
+    /** Length of the longest symbol name. */
+    public int getMaxLength() { return maxLength; }
+
+    /** Whether {@code c} only separates symbols (a {@code ','} that is not a symbol). */
+    public boolean isSeparator(char c) {
+        return c == SEPARATOR && separator;
+    }
+
+    /**
+     * Longest symbol starting at {@code pos} and ending before {@code end}, as a
+     * match handle for {@link #symbolOf} and {@link #lengthOf}, or
+     * {@link #NO_MATCH}. Allocates nothing, so it can be shared between threads.
+     */
+    public int next(CharSequence input, int pos, int end) {
+        int node = 0;
+        int best = NO_MATCH;
+        for (int i = pos; i < end; i++) {
+            node = childOf(node, input.charAt(i));
+            if (node < 0) break;
+            if (symbol[node] != CompiledDFA.DEAD) best = node;
+        }
+        return best;
+    }
+
+    public int symbolOf(int match) { return symbol[match]; }
+
+    public int lengthOf(int match) { return depth[match]; }
+
+    private int childOf(int node, char c) {
+        int i = Arrays.binarySearch(edgeChar, childStart[node], childStart[node + 1], c);
+        return i >= 0 ? child[i] : -1;
+    }
+}
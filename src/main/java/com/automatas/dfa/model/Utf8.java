@@ -0,0 +1,83 @@
+package com.automatas.dfa.model;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+
+/**
+ * UTF-8 decoding helpers shared by the byte-level engines; all but
+ * {@link #decodeChars} are allocation-free.
+ */
+public final class Utf8 {
+    /** Returned by the decoders for malformed or truncated sequences. */
+    public static final int MALFORMED = -1;
+
+    private Utf8() {}
+
+    /** Length of the sequence starting with {@code lead}, or 0 if it is not a lead byte. */
+    public static int sequenceLength(int lead) {
+        if ((lead & 0x80) == 0) return 1;
+        if ((lead & 0xE0) == 0xC0) return 2;
+        if ((lead & 0xF0) == 0xE0) return 3;
+        if ((lead & 0xF8) == 0xF0) return 4;
+        return 0;
+    }
+
+    public static boolean isContinuation(int b) {
+        return (b & 0xC0) == 0x80;
+    }
+
+    /**
+     * Decodes the {@code length}-byte sequence at {@code i}, or returns {@link #MALFORMED}:
+     * bad continuation bytes, overlong forms, surrogates and values above U+10FFFF are
+     * all malformed, as {@code new String(bytes, UTF_8)} would replace them.
+     */
+    public static int decode(byte[] in, int i, int length) {
+        int cp = in[i] & (0x7F >> length);
+        for (int k = 1; k < length; k++) {
+            int cont = in[i + k];
+            if (!isContinuation(cont)) return MALFORMED;
+            cp = (cp << 6) | (cont & 0x3F);
+        }
+        return checked(cp, length);
+    }
+
+    /** Same as {@link #decode(byte[], int, int)} using absolute gets. */
+    public static int decode(ByteBuffer in, int i, int length) {
+        int cp = in.get(i) & (0x7F >> length);
+        for (int k = 1; k < length; k++) {
+            int cont = in.get(i + k);
+            if (!isContinuation(cont)) return MALFORMED;
+            cp = (cp << 6) | (cont & 0x3F);
+        }
+        return checked(cp, length);
+    }
+
+    // la forma más corta es la única válida; los sustitutos solo existen en UTF-16
+    private static int checked(int cp, int length) {
+        boolean valid = switch (length) {
+            case 2 -> cp >= 0x80;
+            case 3 -> cp >= 0x800 && (cp < 0xD800 || cp > 0xDFFF);
+            default -> cp >= 0x10000 && cp <= Character.MAX_CODE_POINT;
+        };
+        return valid ? cp : MALFORMED;
+    }
+
+    /**
+     * Decodes {@code in[offset, offset + length)} with absolute gets into UTF-16
+     * (surrogate pairs outside the BMP), or returns {@code null} if it is malformed.
+     */
+    public static CharSequence decodeChars(ByteBuffer in, int offset, int length) {
+        char[] chars = new char[length];
+        int n = 0;
+        for (int i = offset, end = offset + length; i < end; ) {
+            int b = in.get(i);
+            int len = b >= 0 ? 1 : sequenceLength(b);
+            if (len == 0 || i + len > end) return null;
+            int cp = len == 1 ? b : decode(in, i, len);
+            if (cp < 0 || cp > Character.MAX_CODE_POINT) return null;
+            n += Character.toChars(cp, chars, n);
+            i += len;
+        }
+        return CharBuffer.wrap(chars, 0, n);
+    }
+}
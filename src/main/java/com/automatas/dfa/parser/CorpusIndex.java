@@ -0,0 +1,172 @@
+package com.automatas.dfa.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Random access to the lines of a corpus file (one UTF-8 string per line, the
+ * same lines {@link MappedCorpusReader} delivers) without loading it. Opening
+ * scans the file once, keeping the byte offset of every {@link #STRIDE}-th
+ * line and the CRC-32 of the contents (to recognize results stored for it); a line is found by scanning forward from the nearest kept offset
+ * through a small memory-mapped window, and the last position is remembered so
+ * that reading consecutive lines (as a table does while scrolling) costs one
+ * line each.
+ * <p>
+ * Not thread-safe: use it from one thread (the EDT for the strings table).
+ */
+public final class CorpusIndex implements Closeable {
+    public static final int STRIDE = 256;
+    private static final int SCAN_WINDOW = 64 << 20;
+    private static final int READ_WINDOW = 1 << 20;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int crc;
+    private final int lineCount;
+    // sparse[j]: offset del inicio de la línea j * STRIDE
+    private final long[] sparse;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int windowLength;
+    // última línea localizada y su offset
+    private int lastLine = -1;
+    private long lastOffset;
+
+    private CorpusIndex(Path file, FileChannel channel, long fileSize, int crc, int lineCount, long[] sparse) {
+        this.file = file;
+        this.channel = channel;
+        this.fileSize = fileSize;
+        this.crc = crc;
+        this.lineCount = lineCount;
+        this.sparse = sparse;
+    }
+
+    public static CorpusIndex open(Path file) throws IOException {
+        return open(file, null);
+    }
+
+    /**
+     * Indexes {@code file}; {@code progress}, if given, receives the number of
+     * bytes scanned after each window.
+     *
+     * @throws IOException if the file has more lines than a table can show
+     */
+    public static CorpusIndex open(Path file, LongConsumer progress) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = ch.size();
+            long[] sparse = new long[16];
+            long lines = 0;
+            long lineStart = 0;
+            CRC32 crc = new CRC32();
+            for (long position = 0; position < size; position += SCAN_WINDOW) {
+                int len = (int) Math.min(SCAN_WINDOW, size - position);
+                MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, position, len);
+                for (int i = 0; i < len; i++) {
+                    if (buf.get(i) != '\n') continue;
+                    if (lines % STRIDE == 0) {
+                        int j = (int) (lines / STRIDE);
+                        if (j == sparse.length) sparse = Arrays.copyOf(sparse, 2 * j);
+                        sparse[j] = lineStart;
+                    }
+                    lines++;
+                    lineStart = position + i + 1;
+                    if (lines > Integer.MAX_VALUE - 1)
+                        throw new IOException("El corpus tiene demasiadas líneas: " + file);
+                }
+                crc.update(buf);
+                if (progress != null) progress.accept(position + len);
+            }
+            if (lineStart < size) {
+                // última línea sin salto de línea final
+                if (lines % STRIDE == 0) {
+                    int j = (int) (lines / STRIDE);
+                    if (j == sparse.length) sparse = Arrays.copyOf(sparse, j + 1);
+                    sparse[j] = lineStart;
+                }
+                lines++;
+            }
+            int count = (int) lines;
+            return new CorpusIndex(file, ch, size, (int) crc.getValue(), count, Arrays.copyOf(sparse, (count + STRIDE - 1) / STRIDE));
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    public Path getFile() { return file; }
+
+    public int getLineCount() { return lineCount; }
+
+    /** Size of the file in bytes when it was indexed. */
+    public long getSize() { return fileSize; }
+
+    /** CRC-32 of the file contents when it was indexed. */
+    public int getCrc() { return crc; }
+
+    /** Line {@code i} without its line break (nor a trailing {@code '\r'}), decoded as UTF-8. */
+    public String line(int i) {
+        if (i < 0 || i >= lineCount) throw new IndexOutOfBoundsException(i);
+        try {
+            long start = lineStart(i);
+            long end = start;
+            while (end < fileSize && byteAt(end) != '\n') end++;
+            lastLine = i + 1;
+            lastOffset = Math.min(fileSize, end + 1);
+            if (end > start && byteAt(end - 1) == '\r') end--;
+            long length = end - start;
+            if (length > Integer.MAX_VALUE - 8) throw new IOException("Línea demasiado larga en " + file);
+            byte[] bytes = new byte[(int) length];
+            for (int k = 0; k < bytes.length; k++) bytes[k] = byteAt(start + k);
+            return new String(bytes, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long lineStart(int i) throws IOException {
+        int base = i / STRIDE * STRIDE;
+        int line = base;
+        long offset = sparse[i / STRIDE];
+        if (lastLine > base && lastLine <= i) {
+            // seguir desde la última línea leída
+            line = lastLine;
+            offset = lastOffset;
+        }
+        while (line < i) {
+            while (byteAt(offset) != '\n') offset++;
+            offset++;
+            line++;
+        }
+        return offset;
+    }
+
+    private byte byteAt(long position) throws IOException {
+        long rel = position - windowStart;
+        if (window == null || rel < 0 || rel >= windowLength) {
+            // un poco antes de la posición: también se relee hacia atrás (el '\r' final)
+            windowStart = Math.max(0, position - READ_WINDOW / 4);
+            windowLength = (int) Math.min(READ_WINDOW, fileSize - windowStart);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowLength);
+            rel = position - windowStart;
+        }
+        return window.get((int) rel);
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+}
@@ -1,9 +1,15 @@
 package com.automatas.dfa.parser;
 
+import com.automatas.dfa.engine.LazyDFA;
+import com.automatas.dfa.model.CompiledDFA;
+import com.automatas.dfa.model.CompiledDFAFile;
 import com.automatas.dfa.model.DFA;
+import com.automatas.dfa.model.NFA;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 
 /**
@@ -19,107 +25,23 @@ import java.util.*;
  * strings:
  * ab
  * aab
+ * <p>
+ * Two nondeterministic variants are accepted as well and determinized on
+ * demand ({@link ParseResult#getDfa()}): a {@code regex:} line instead of
+ * states and transitions, or {@code type: nfa}, which allows several targets
+ * for the same state and symbol and ε-transitions ({@code q0,ε->q1}). Only
+ * {@code ε} stands for the empty string, so it cannot be an alphabet symbol.
  */
 public class DFAParser {
+    // símbolo reservado para las transiciones vacías de un AFN
+    private static final String EPSILON = "ε";
 
     public static DFA parse(String text) {
-        BufferedReader br = new BufferedReader(new StringReader(text));
-        String line;
-        Set<String> symbols = new LinkedHashSet<>();
-        Set<String> states = new LinkedHashSet<>();
-        String start = null;
-        Set<String> finals = new LinkedHashSet<>();
-        Map<String, Map<String, String>> transitions = new LinkedHashMap<>();
-        List<String> strings = new ArrayList<>();
-
-        boolean inTransitions = false;
-        boolean inStrings = false;
-        int transRowIndex = 0; // para formato de tabla (filas sin estado origen explícito)
-
-        try {
-            while ((line = br.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty() || line.startsWith("#") || line.startsWith("//")) continue;
-
-                String lower = line.toLowerCase(Locale.ROOT);
-                if (lower.equals("transitions:") || lower.equals("transiciones:")) {
-                    inTransitions = true; inStrings = false; transRowIndex = 0; continue;
-                }
-                if (lower.equals("strings:") || lower.equals("cadenas:") || lower.equals("cadenas a analizar:")) {
-                    inStrings = true; inTransitions = false; continue;
-                }
-
-                if (!inTransitions && !inStrings) {
-                    if (lower.startsWith("symbols:") || lower.startsWith("simbolos:") || lower.startsWith("símbolos:")) {
-                        symbols.addAll(splitCSV(line.substring(line.indexOf(':') + 1)));
-                    } else if (lower.startsWith("states:") || lower.startsWith("estados:")) {
-                        states.addAll(splitCSV(line.substring(line.indexOf(':') + 1)));
-                    } else if (lower.startsWith("start:") || lower.startsWith("estado inicial:")) {
-                        start = line.substring(line.indexOf(':') + 1).trim();
-                    } else if (lower.startsWith("finals:") ||
-                            lower.startsWith("finales:") ||
-                            lower.startsWith("estados de aceptación:") ||
-                            lower.startsWith("estados de aceptacion:")) {
-                        finals.addAll(splitCSV(line.substring(line.indexOf(':') + 1)));
-                    }
-                } else if (inTransitions) {
-                    // Soportar:
-                    // 1) from,sym->to
-                    // 2) from: to0,to1,...
-                    // 3) to0,to1,... (fila sin 'from', se deduce por orden de 'states')
-                    if (line.contains("->")) {
-                        String[] parts = line.split("->");
-                        if (parts.length != 2) throw new IllegalArgumentException("Transición inválida: " + line);
-                        String left = parts[0].trim();
-                        String to = parts[1].trim();
-                        String[] ls = left.split(",");
-                        if (ls.length != 2) throw new IllegalArgumentException("Transición inválida (lado izquierdo): " + line);
-                        String from = ls[0].trim();
-                        String sym = ls[1].trim();
-                        transitions.computeIfAbsent(from, k -> new LinkedHashMap<>()).put(sym, to);
-                    } else if (line.contains(":")) {
-                        String[] p = line.split(":", 2);
-                        String from = p[0].trim();
-                        List<String> tos = splitCSV(p[1]);
-                        List<String> syms = new ArrayList<>(symbols);
-                        if (tos.size() != syms.size()) {
-                            throw new IllegalArgumentException("Fila de transición no coincide con número de símbolos: " + line);
-                        }
-                        Map<String, String> map = transitions.computeIfAbsent(from, k -> new LinkedHashMap<>());
-                        for (int i = 0; i < syms.size(); i++) {
-                            map.put(syms.get(i), tos.get(i).trim());
-                        }
-                    } else {
-                        // Fila de destinos sin estado origen explícito (formato de tabla)
-                        List<String> tos = splitCSV(line);
-                        List<String> syms = new ArrayList<>(symbols);
-                        List<String> sts = new ArrayList<>(states);
-
-                        if (tos.size() != syms.size()) {
-                            throw new IllegalArgumentException("Fila de transición no coincide con número de símbolos (" + syms.size() + "): " + line + 
-                                    ". Use el formato 'estado_origen,símbolo->estado_destino' o proporcione todos los destinos separados por comas");
-                        }
-                        if (transRowIndex >= sts.size()) {
-                            // En formato de tabla, solo procesamos tantas filas como estados hay
-                            // Las filas adicionales se ignoran silenciosamente
-                            continue;
-                        }
-                        String from = sts.get(transRowIndex++);
-                        Map<String, String> map = transitions.computeIfAbsent(from, k -> new LinkedHashMap<>());
-                        for (int i = 0; i < syms.size(); i++) {
-                            map.put(syms.get(i), tos.get(i).trim());
-                        }
-                    }
-                } else if (inStrings) {
-                    // En parse() no usamos strings, pero ignoramos líneas aquí
-                }
-            }
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        return parse(new StringReader(text));
+    }
 
-        if (start == null) throw new IllegalArgumentException("Falta 'start:'");
-        return new DFA(symbols, states, start, finals, transitions);
+    public static DFA parse(Reader reader) {
+        return read(reader, false).getDfa();
     }
 
     public static String toText(DFA dfa, List<String> strings) {
@@ -144,9 +66,60 @@ public class DFAParser {
     }
 
     public static DFA parseFile(File file) throws IOException {
-        try (InputStream is = new FileInputStream(file)) {
-            String text = new String(is.readAllBytes(), StandardCharsets.UTF_8);
-            return parse(text);
+        try (Reader r = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            return parse(r);
+        }
+    }
+
+    /**
+     * Loads the automaton of {@code file} from its binary companion
+     * ({@link CompiledDFAFile#pathFor}) when it was compiled from the current
+     * text; otherwise parses the text and refreshes the binary file. Strings
+     * are not read: use {@link #parseFileAll} when they are needed.
+     */
+    public static DFA loadFile(File file) throws IOException {
+        byte[] text = Files.readAllBytes(file.toPath());
+        Path binary = CompiledDFAFile.pathFor(file.toPath());
+        if (CompiledDFAFile.isCompiledFrom(binary, text)) {
+            try {
+                return new DFA(CompiledDFAFile.load(binary));
+            } catch (IOException | IllegalArgumentException e) {
+                // binario dañado: se vuelve a generar desde el texto
+            }
+        }
+        DFA dfa = parse(new String(text, StandardCharsets.UTF_8));
+        saveCompiled(dfa, binary, text);
+        return dfa;
+    }
+
+    /**
+     * Whether the binary companion of {@code file} was compiled from its current
+     * text (same length and CRC-32; file times are not trusted).
+     */
+    public static boolean hasFreshCompiled(File file) throws IOException {
+        return CompiledDFAFile.isCompiledFrom(CompiledDFAFile.pathFor(file.toPath()), Files.readAllBytes(file.toPath()));
+    }
+
+    /**
+     * Writes the binary companion of the text definition {@code file}, stamped
+     * with the text currently on disk, which must be what {@code dfa} was parsed
+     * from. Best effort: returns {@code false} if it could not be written (e.g.
+     * read-only directory), since the text remains the source of truth.
+     */
+    public static boolean saveCompiled(DFA dfa, File file) {
+        try {
+            return saveCompiled(dfa, CompiledDFAFile.pathFor(file.toPath()), Files.readAllBytes(file.toPath()));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static boolean saveCompiled(DFA dfa, Path binary, byte[] text) {
+        try {
+            CompiledDFAFile.write(dfa.getCompiled(), binary, text);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            return false;
         }
     }
 
@@ -167,125 +140,380 @@ public class DFAParser {
 
     // Nuevo: resultado con DFA y cadenas
     public static class ParseResult {
-        private final DFA dfa;
+        private volatile DFA dfa;
+        private final NFA nfa;
         private final List<String> strings;
         public ParseResult(DFA dfa, List<String> strings) {
             this.dfa = dfa;
+            this.nfa = null;
             this.strings = Collections.unmodifiableList(new ArrayList<>(strings));
         }
-        public DFA getDfa() { return dfa; }
+        public ParseResult(NFA nfa, List<String> strings) {
+            this.nfa = nfa;
+            this.strings = Collections.unmodifiableList(new ArrayList<>(strings));
+        }
+
+        /**
+         * The automaton; for nondeterministic definitions, its determinization
+         * (bounded by {@link LazyDFA#DEFAULT_MAX_DFA_STATES}), computed on first use.
+         * Only views that show every state need it: to accept inputs of an NFA,
+         * run {@link #getNfa()} through a {@link LazyDFA}.
+         *
+         * @throws IllegalArgumentException if the determinization exceeds the limit
+         */
+        public DFA getDfa() {
+            DFA d = dfa;
+            if (d == null) {
+                d = new LazyDFA(nfa).toDFA();
+                dfa = d;
+            }
+            return d;
+        }
+
+        /** The nondeterministic definition, or {@code null} if it was a DFA. */
+        public NFA getNfa() { return nfa; }
         public List<String> getStrings() { return strings; }
     }
 
     // Nuevo: parsea devolviendo AFD y cadenas
     public static ParseResult parseAll(String text) {
-        BufferedReader br = new BufferedReader(new StringReader(text));
-        String line;
-        Set<String> symbols = new LinkedHashSet<>();
-        Set<String> states = new LinkedHashSet<>();
+        return parseAll(new StringReader(text));
+    }
+
+    public static ParseResult parseAll(Reader reader) {
+        return read(reader, true);
+    }
+
+    public static ParseResult parseAll(Path path) throws IOException {
+        try (Reader r = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return parseAll(r);
+        }
+    }
+
+    // Nuevo: versión desde archivo
+    public static ParseResult parseFileAll(File file) throws IOException {
+        return parseAll(file.toPath());
+    }
+
+    /**
+     * Single streaming pass over the definition. Names are interned to int ids as
+     * they are declared and transitions go straight into a flat int table, so
+     * loading is linear in the input size.
+     */
+    private static ParseResult read(Reader reader, boolean collectStrings) {
+        BufferedReader br = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader, 1 << 16);
+        Names symbols = new Names();
+        Names states = new Names();
         String start = null;
         Set<String> finals = new LinkedHashSet<>();
-        Map<String, Map<String, String>> transitions = new LinkedHashMap<>();
         List<String> strings = new ArrayList<>();
+        int[] table = null; // table[from * stride + sym], se crea al entrar en "transitions:"
+        int stride = 0;
+        String regex = null;
+        boolean nondeterministic = false;
+        Edges edges = new Edges(); // solo para type: nfa
 
         boolean inTransitions = false;
         boolean inStrings = false;
-        int transRowIndex = 0;
+        int transRowIndex = 0; // para formato de tabla (filas sin estado origen explícito)
 
         try {
+            String line;
             while ((line = br.readLine()) != null) {
                 line = line.trim();
                 if (line.isEmpty() || line.startsWith("#") || line.startsWith("//")) continue;
 
-                String lower = line.toLowerCase(Locale.ROOT);
-                if (lower.equals("transitions:") || lower.equals("transiciones:")) {
-                    inTransitions = true; inStrings = false; transRowIndex = 0; continue;
+                if (line.equalsIgnoreCase("transitions:") || line.equalsIgnoreCase("transiciones:")) {
+                    inTransitions = true; inStrings = false; transRowIndex = 0;
+                    if (table == null || stride != symbols.size()) {
+                        table = restride(table, stride, symbols.size(), states.size());
+                        stride = symbols.size();
+                    }
+                    continue;
                 }
-                if (lower.equals("strings:") || lower.equals("cadenas:") || lower.equals("cadenas a analizar:")) {
+                if (line.equalsIgnoreCase("strings:") || line.equalsIgnoreCase("cadenas:") || line.equalsIgnoreCase("cadenas a analizar:")) {
                     inStrings = true; inTransitions = false; continue;
                 }
 
                 if (!inTransitions && !inStrings) {
-                    if (lower.startsWith("symbols:") || lower.startsWith("simbolos:") || lower.startsWith("símbolos:")) {
-                        symbols.addAll(splitCSV(line.substring(line.indexOf(':') + 1)));
-                    } else if (lower.startsWith("states:") || lower.startsWith("estados:")) {
-                        states.addAll(splitCSV(line.substring(line.indexOf(':') + 1)));
-                    } else if (lower.startsWith("start:") || lower.startsWith("estado inicial:")) {
+                    if (startsWithKey(line, "symbols:") || startsWithKey(line, "simbolos:") || startsWithKey(line, "símbolos:")) {
+                        addCSV(symbols, line, line.indexOf(':') + 1);
+                    } else if (startsWithKey(line, "states:") || startsWithKey(line, "estados:")) {
+                        addCSV(states, line, line.indexOf(':') + 1);
+                    } else if (startsWithKey(line, "start:") || startsWithKey(line, "estado inicial:")) {
                         start = line.substring(line.indexOf(':') + 1).trim();
-                    } else if (lower.startsWith("finals:") ||
-                            lower.startsWith("finales:") ||
-                            lower.startsWith("estados de aceptación:") ||
-                            lower.startsWith("estados de aceptacion:")) {
+                    } else if (startsWithKey(line, "regex:")) {
+                        regex = line.substring(line.indexOf(':') + 1).trim();
+                    } else if (startsWithKey(line, "type:") || startsWithKey(line, "tipo:")) {
+                        String type = line.substring(line.indexOf(':') + 1).trim();
+                        if (type.equalsIgnoreCase("nfa") || type.equalsIgnoreCase("afn")) nondeterministic = true;
+                        else if (!type.equalsIgnoreCase("dfa") && !type.equalsIgnoreCase("afd"))
+                            throw new IllegalArgumentException("Tipo de autómata desconocido: " + type);
+                    } else if (startsWithKey(line, "finals:") ||
+                            startsWithKey(line, "finales:") ||
+                            startsWithKey(line, "estados de aceptación:") ||
+                            startsWithKey(line, "estados de aceptacion:")) {
                         finals.addAll(splitCSV(line.substring(line.indexOf(':') + 1)));
                     }
                 } else if (inTransitions) {
-                    if (line.contains("->")) {
-                        // from,sym->to
-                        String[] parts = line.split("->");
-                        if (parts.length != 2) throw new IllegalArgumentException("Transición inválida: " + line);
-                        String left = parts[0].trim();
-                        String to = parts[1].trim();
-                        String[] ls = left.split(",");
-                        if (ls.length != 2) throw new IllegalArgumentException("Transición inválida (lado izquierdo): " + line);
-                        String from = ls[0].trim();
-                        String sym = ls[1].trim();
-                        transitions.computeIfAbsent(from, k -> new LinkedHashMap<>()).put(sym, to);
-                    } else if (line.contains(":")) {
-                        // from: to0,to1,...
-                        String[] p = line.split(":", 2);
-                        String from = p[0].trim();
-                        List<String> tos = splitCSV(p[1]);
-                        List<String> syms = new ArrayList<>(symbols);
-                        if (tos.size() != syms.size()) {
+                    // Soportar:
+                    // 1) from,sym->to
+                    // 2) from: to0,to1,...
+                    // 3) to0,to1,... (fila sin 'from', se deduce por orden de 'states')
+                    int arrow = line.indexOf("->");
+                    if (nondeterministic) {
+                        int comma = line.indexOf(',');
+                        int symEnd = arrow < 0 ? -1 : symbolEnd(line, arrow);
+                        int toEnd = arrow < 0 ? -1 : destinationEnd(line, arrow);
+                        if (comma < 0 || comma >= symEnd || toEnd < 0)
+                            throw new IllegalArgumentException("Transición inválida (use 'origen,símbolo->destino'): " + line);
+                        int from = fromId(states, line.substring(0, comma).trim());
+                        String symName = line.substring(comma + 1, symEnd).trim();
+                        if (symName.isEmpty())
+                            throw new IllegalArgumentException("Falta el símbolo de la transición (use ε para las vacías): " + line);
+                        int sym = symName.equals(EPSILON) ? NFA.EPSILON : symbolId(symbols, symName);
+                        edges.add(from, sym, toId(states, line.substring(arrow + 2, toEnd).trim()));
+                    } else if (arrow >= 0) {
+                        int toEnd = destinationEnd(line, arrow);
+                        if (toEnd < 0)
+                            throw new IllegalArgumentException("Transición inválida: " + line);
+                        int comma = line.indexOf(',');
+                        int symEnd = symbolEnd(line, arrow);
+                        int second = comma < 0 ? -1 : line.indexOf(',', comma + 1);
+                        if (comma < 0 || comma >= symEnd || second >= 0 && second < symEnd)
+                            throw new IllegalArgumentException("Transición inválida (lado izquierdo): " + line);
+                        int from = fromId(states, line.substring(0, comma).trim());
+                        int sym = symbolId(symbols, line.substring(comma + 1, symEnd).trim());
+                        table[from * stride + sym] = toId(states, line.substring(arrow + 2, toEnd).trim());
+                    } else if (line.indexOf(':') >= 0) {
+                        int colon = line.indexOf(':');
+                        if (countCSV(line, colon + 1) != stride) {
                             throw new IllegalArgumentException("Fila de transición no coincide con número de símbolos: " + line);
                         }
-                        Map<String, String> map = transitions.computeIfAbsent(from, k -> new LinkedHashMap<>());
-                        for (int i = 0; i < syms.size(); i++) {
-                            map.put(syms.get(i), tos.get(i).trim());
-                        }
+                        int from = fromId(states, line.substring(0, colon).trim());
+                        readRow(line, colon + 1, states, table, from * stride);
                     } else {
-                        // to0,to1,... (sin 'from', deducir por el orden de estados - formato de tabla)
-                        List<String> tos = splitCSV(line);
-                        List<String> syms = new ArrayList<>(symbols);
-                        List<String> sts = new ArrayList<>(states);
-
-                        if (tos.size() != syms.size()) {
-                            throw new IllegalArgumentException("Fila de transición no coincide con número de símbolos (" + syms.size() + "): " + line + 
+                        // Fila de destinos sin estado origen explícito (formato de tabla)
+                        if (countCSV(line, 0) != stride) {
+                            throw new IllegalArgumentException("Fila de transición no coincide con número de símbolos (" + stride + "): " + line +
                                     ". Use el formato 'estado_origen,símbolo->estado_destino' o proporcione todos los destinos separados por comas");
                         }
-                        if (transRowIndex >= sts.size()) {
+                        if (transRowIndex >= states.size()) {
                             // En formato de tabla, solo procesamos tantas filas como estados hay
                             // Las filas adicionales se ignoran silenciosamente
                             continue;
                         }
-                        String from = sts.get(transRowIndex++);
-                        Map<String, String> map = transitions.computeIfAbsent(from, k -> new LinkedHashMap<>());
-                        for (int i = 0; i < syms.size(); i++) {
-                            map.put(syms.get(i), tos.get(i).trim());
-                        }
+                        int from = transRowIndex++;
+                        readRow(line, 0, states, table, from * stride);
                     }
-                } else if (inStrings) {
+                } else if (collectStrings) {
                     // Permitir cadenas separadas por comas dentro de la misma línea (ej. 1,0,0,1 o x,x,y)
-                    // Interpretar las comas como separadores de símbolos
-                    List<String> symbolsList = splitCSV(line);
-                    String s = String.join("", symbolsList);
-                    strings.add(s);
+                    // Interpretar las comas como separadores de símbolos (ver splitStrings)
+                    strings.add(line);
                 }
             }
         } catch (IOException e) {
-            throw new RuntimeException(e);
+            throw new UncheckedIOException(e);
         }
+        splitStrings(strings, symbols.names);
 
+        if (regex != null) {
+            return new ParseResult(RegexCompiler.compile(regex, symbols.names), strings);
+        }
         if (start == null) throw new IllegalArgumentException("Falta 'start:'");
-        DFA dfa = new DFA(symbols, states, start, finals, transitions);
+        int startId = states.id(start);
+        if (startId < 0) throw new IllegalArgumentException("Estado inicial no pertenece al conjunto de estados");
+        BitSet accept = new BitSet(states.size());
+        for (String f : finals) {
+            int id = states.id(f);
+            if (id < 0) throw new IllegalArgumentException("Al menos un estado de aceptación no pertenece al conjunto de estados");
+            accept.set(id);
+        }
+        if (nondeterministic) {
+            if (symbols.id(EPSILON) >= 0)
+                throw new IllegalArgumentException("El símbolo ε está reservado para las transiciones vacías");
+            return new ParseResult(new NFA(symbols.names, states.names, startId, accept,
+                    edges.from(), edges.symbol(), edges.to()), strings);
+        }
+        table = restride(table, stride, symbols.size(), states.size());
+        DFA dfa = new DFA(symbols.names, states.names, startId, accept, table);
         return new ParseResult(dfa, strings);
     }
 
-    // Nuevo: versión desde archivo
-    public static ParseResult parseFileAll(File file) throws IOException {
-        try (InputStream is = new FileInputStream(file)) {
-            String text = new String(is.readAllBytes(), StandardCharsets.UTF_8);
-            return parseAll(text);
+    /** Ordered, de-duplicated names with their int ids. */
+    private static final class Names {
+        final List<String> names = new ArrayList<>();
+        final Map<String, Integer> ids = new HashMap<>();
+
+        void add(String name) {
+            if (ids.putIfAbsent(name, names.size()) == null) names.add(name);
+        }
+
+        int id(String name) {
+            Integer id = ids.get(name);
+            return id == null ? -1 : id;
         }
+
+        int size() { return names.size(); }
+    }
+
+    /** Growable parallel arrays of NFA edges. */
+    private static final class Edges {
+        private int[] from = new int[16];
+        private int[] symbol = new int[16];
+        private int[] to = new int[16];
+        private int size;
+
+        void add(int f, int sym, int t) {
+            if (size == from.length) {
+                from = Arrays.copyOf(from, size * 2);
+                symbol = Arrays.copyOf(symbol, size * 2);
+                to = Arrays.copyOf(to, size * 2);
+            }
+            from[size] = f;
+            symbol[size] = sym;
+            to[size++] = t;
+        }
+
+        int[] from() { return Arrays.copyOf(from, size); }
+        int[] symbol() { return Arrays.copyOf(symbol, size); }
+        int[] to() { return Arrays.copyOf(to, size); }
+    }
+
+    /** Copies {@code old} (rows of {@code oldStride}) into a states × symbols table filled with DEAD. */
+    private static int[] restride(int[] old, int oldStride, int newStride, int rows) {
+        int[] t = new int[Math.multiplyExact(rows, newStride)];
+        Arrays.fill(t, CompiledDFA.DEAD);
+        if (old != null && oldStride > 0) {
+            int oldRows = old.length / oldStride;
+            for (int r = 0; r < oldRows; r++) System.arraycopy(old, r * oldStride, t, r * newStride, oldStride);
+        }
+        return t;
+    }
+
+    /**
+     * End of the destination of a {@code from,sym->to} line whose first arrow is
+     * at {@code arrow}, or -1 if it is missing or holds another arrow. Trailing
+     * arrows ({@code q0,a->q1->}) are ignored, as the original split("->") did.
+     */
+    private static int destinationEnd(String line, int arrow) {
+        int end = line.length();
+        while (end > arrow + 2 && line.startsWith("->", end - 2)) end -= 2;
+        int extra = line.indexOf("->", arrow + 2);
+        return end == arrow + 2 || extra >= 0 && extra + 2 <= end ? -1 : end;
+    }
+
+    /**
+     * End of the symbol before {@code arrow}. Trailing commas ({@code q0,a,->q1})
+     * are ignored, as the original split(",") did.
+     */
+    private static int symbolEnd(String line, int arrow) {
+        int end = arrow;
+        while (end > 0 && line.charAt(end - 1) <= ' ') end--;
+        while (end > 0 && line.charAt(end - 1) == ',') end--;
+        return end;
+    }
+
+    private static boolean startsWithKey(String line, String key) {
+        return line.regionMatches(true, 0, key, 0, key.length());
+    }
+
+    private static int fromId(Names states, String name) {
+        int id = states.id(name);
+        if (id < 0) throw new IllegalArgumentException("Transición desde estado desconocido: " + name);
+        return id;
+    }
+
+    private static int toId(Names states, String name) {
+        int id = states.id(name);
+        if (id < 0) throw new IllegalArgumentException("Transición hacia estado desconocido: " + name);
+        return id;
+    }
+
+    private static int symbolId(Names symbols, String name) {
+        int id = symbols.id(name);
+        if (id < 0) throw new IllegalArgumentException("Símbolo desconocido en transición: " + name);
+        return id;
+    }
+
+    /** Adds the non-empty comma-separated items of {@code line} from {@code from} on. */
+    private static void addCSV(Names names, String line, int from) {
+        int i = from;
+        while (i <= line.length()) {
+            int comma = line.indexOf(',', i);
+            if (comma < 0) comma = line.length();
+            String item = line.substring(i, comma).trim();
+            if (!item.isEmpty()) names.add(item);
+            i = comma + 1;
+        }
+    }
+
+    private static int countCSV(String line, int from) {
+        int count = 0;
+        int i = from;
+        while (i <= line.length()) {
+            int comma = line.indexOf(',', i);
+            if (comma < 0) comma = line.length();
+            if (!isBlank(line, i, comma)) count++;
+            i = comma + 1;
+        }
+        return count;
+    }
+
+    /** Reads one row of destinations (one per symbol, already counted) into {@code table}. */
+    private static void readRow(String line, int from, Names states, int[] table, int base) {
+        int col = 0;
+        int i = from;
+        while (i <= line.length()) {
+            int comma = line.indexOf(',', i);
+            if (comma < 0) comma = line.length();
+            if (!isBlank(line, i, comma)) table[base + col++] = toId(states, line.substring(i, comma).trim());
+            i = comma + 1;
+        }
+    }
+
+    private static boolean isBlank(String s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (s.charAt(i) > ' ') return false;
+        }
+        return true;
+    }
+
+    /**
+     * Normalizes the comma-separated strings (items trimmed, empty ones dropped).
+     * A comma separates symbols in every alphabet (see {@link CompiledDFA}), so
+     * with one-code-point symbols the commas are just dropped; with
+     * multi-character symbols they are kept so that {@code a,b} and {@code ab}
+     * stay different inputs.
+     */
+    private static void splitStrings(List<String> strings, List<String> symbols) {
+        boolean multiChar = false;
+        for (String sym : symbols) multiChar |= sym.codePointCount(0, sym.length()) != 1;
+        // una coma declarada como símbolo no separa nada
+        if (symbols.contains(",")) return;
+        for (int i = 0; i < strings.size(); i++) {
+            strings.set(i, joinCSV(strings.get(i), multiChar ? "," : ""));
+        }
+    }
+
+    /** Joins the trimmed, non-empty comma-separated items of {@code line} with {@code separator}. */
+    private static String joinCSV(String line, String separator) {
+        if (line.indexOf(',') < 0) return line;
+        StringBuilder sb = new StringBuilder(line.length());
+        int i = 0;
+        while (i <= line.length()) {
+            int comma = line.indexOf(',', i);
+            if (comma < 0) comma = line.length();
+            int from = i;
+            int to = comma;
+            while (from < to && line.charAt(from) <= ' ') from++;
+            while (to > from && line.charAt(to - 1) <= ' ') to--;
+            if (from < to) {
+                if (sb.length() > 0) sb.append(separator);
+                sb.append(line, from, to);
+            }
+            i = comma + 1;
+        }
+        return sb.toString();
     }
 }
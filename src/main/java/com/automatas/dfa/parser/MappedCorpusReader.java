@@ -0,0 +1,125 @@
+package com.automatas.dfa.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a corpus file (one UTF-8 string per line) through memory-mapped windows
+ * of {@link FileChannel#map}. Line boundaries are found in place and handed out
+ * as offsets into the mapped buffer, so no line is ever decoded to a
+ * {@code String} and heap use does not depend on the file size.
+ */
+public class MappedCorpusReader {
+    public static final int DEFAULT_WINDOW_SIZE = 64 << 20;
+
+    /**
+     * A group of consecutive lines inside one mapped window. The buffer must only
+     * be read with absolute gets; it stays valid while the batch is referenced.
+     */
+    public static final class LineBatch {
+        private final ByteBuffer buffer;
+        private final int[] offsets;
+        private final int[] lengths;
+        private int size;
+
+        LineBatch(ByteBuffer buffer, int capacity) {
+            this.buffer = buffer;
+            this.offsets = new int[capacity];
+            this.lengths = new int[capacity];
+        }
+
+        public ByteBuffer buffer() { return buffer; }
+        public int size() { return size; }
+        public int offset(int i) { return offsets[i]; }
+        public int length(int i) { return lengths[i]; }
+
+        boolean isFull() { return size == offsets.length; }
+
+        void add(int offset, int length) {
+            offsets[size] = offset;
+            lengths[size] = length;
+            size++;
+        }
+    }
+
+    public interface BatchHandler {
+        void onBatch(LineBatch batch) throws IOException;
+    }
+
+    private final Path file;
+    private final int windowSize;
+
+    public MappedCorpusReader(Path file) {
+        this(file, DEFAULT_WINDOW_SIZE);
+    }
+
+    public MappedCorpusReader(Path file, int windowSize) {
+        if (windowSize <= 0) throw new IllegalArgumentException("Tamaño de ventana inválido: " + windowSize);
+        this.file = file;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Walks the whole file and delivers its lines in batches of at most
+     * {@code linesPerBatch}. A trailing {@code '\r'} is excluded from each line.
+     *
+     * @return number of lines read
+     */
+    public long forEachBatch(int linesPerBatch, BatchHandler handler) throws IOException {
+        long lines = 0;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = ch.size();
+            long position = 0;
+            int window = windowSize;
+            while (position < fileSize) {
+                int len = (int) Math.min(window, fileSize - position);
+                boolean lastWindow = position + len == fileSize;
+                MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, position, len);
+
+                LineBatch batch = new LineBatch(buf, linesPerBatch);
+                int lineStart = 0;
+                for (int i = 0; i < len; i++) {
+                    if (buf.get(i) != '\n') continue;
+                    batch.add(lineStart, trimmedLength(buf, lineStart, i));
+                    lineStart = i + 1;
+                    if (batch.isFull()) {
+                        handler.onBatch(batch);
+                        lines += batch.size();
+                        batch = new LineBatch(buf, linesPerBatch);
+                    }
+                }
+                if (lastWindow && lineStart < len) {
+                    // última línea sin salto de línea final
+                    batch.add(lineStart, trimmedLength(buf, lineStart, len));
+                    lineStart = len;
+                }
+                if (batch.size() > 0) {
+                    handler.onBatch(batch);
+                    lines += batch.size();
+                }
+                if (lastWindow) break;
+                if (lineStart == 0) {
+                    // una sola línea no cabe en la ventana: ampliarla y volver a mapear
+                    if (window > Integer.MAX_VALUE / 2) {
+                        throw new IOException("Línea demasiado larga en " + file + " a partir del byte " + position);
+                    }
+                    window *= 2;
+                    continue;
+                }
+                // la línea incompleta al final de la ventana se vuelve a leer en la siguiente
+                position += lineStart;
+                window = windowSize;
+            }
+        }
+        return lines;
+    }
+
+    private static int trimmedLength(ByteBuffer buf, int start, int end) {
+        if (end > start && buf.get(end - 1) == '\r') end--;
+        return end - start;
+    }
+}
@@ -0,0 +1,182 @@
+package com.automatas.dfa.parser;
+
+import com.automatas.dfa.model.NFA;
+
+import java.util.*;
+
+/**
+ * Compiles a regular expression into an {@link NFA} with Thompson's
+ * construction. Supported syntax:
+ * <pre>
+ *  ab      concatenation          a|b     alternation
+ *  a*      zero or more           a+      one or more
+ *  a?      optional               (a)     grouping
+ *  .       any alphabet symbol    ε       empty string
+ *  \x      literal x (for special characters)
+ * </pre>
+ * Every other character is a one-character symbol; a code point outside the
+ * BMP (an emoji) is one symbol, as {@link com.automatas.dfa.model.CompiledDFA} reads it. If no alphabet is given it
+ * is inferred from the literals, in order of appearance.
+ */
+public class RegexCompiler {
+    private final String pattern;
+    private final List<String> symbols;
+    private final Map<String, Integer> symbolIds = new HashMap<>();
+    private final boolean inferAlphabet;
+    private int pos;
+
+    // aristas del AFN en construcción
+    private int stateCount;
+    private int[] from = new int[16];
+    private int[] symbol = new int[16];
+    private int[] to = new int[16];
+    private int edges;
+
+    private RegexCompiler(String pattern, List<String> alphabet) {
+        this.pattern = pattern;
+        this.inferAlphabet = alphabet == null || alphabet.isEmpty();
+        this.symbols = inferAlphabet ? new ArrayList<>() : new ArrayList<>(alphabet);
+        for (int i = 0; i < symbols.size(); i++) symbolIds.put(symbols.get(i), i);
+    }
+
+    /**
+     * Compiles {@code pattern} over {@code alphabet} (or the inferred alphabet
+     * if {@code null} or empty).
+     */
+    public static NFA compile(String pattern, List<String> alphabet) {
+        RegexCompiler c = new RegexCompiler(pattern, alphabet);
+        int[] f = c.alternation();
+        if (c.pos < pattern.length())
+            throw new IllegalArgumentException("Expresión regular inválida: ')' sin abrir en la posición " + (c.pos + 1));
+        List<String> names = new ArrayList<>(c.stateCount);
+        for (int i = 0; i < c.stateCount; i++) names.add(String.valueOf(i));
+        BitSet accept = new BitSet();
+        accept.set(f[1]);
+        return new NFA(c.symbols, names, f[0], accept,
+                Arrays.copyOf(c.from, c.edges), Arrays.copyOf(c.symbol, c.edges), Arrays.copyOf(c.to, c.edges));
+    }
+
+    // Cada fragmento es {inicio, fin}: el fin no tiene aristas de salida
+
+    private int[] alternation() {
+        int[] left = concatenation();
+        while (pos < pattern.length() && pattern.charAt(pos) == '|') {
+            pos++;
+            int[] right = concatenation();
+            int s = newState(), e = newState();
+            edge(s, NFA.EPSILON, left[0]);
+            edge(s, NFA.EPSILON, right[0]);
+            edge(left[1], NFA.EPSILON, e);
+            edge(right[1], NFA.EPSILON, e);
+            left = new int[]{s, e};
+        }
+        return left;
+    }
+
+    private int[] concatenation() {
+        int[] result = null;
+        while (pos < pattern.length() && pattern.charAt(pos) != '|' && pattern.charAt(pos) != ')') {
+            int[] next = repetition();
+            if (result == null) {
+                result = next;
+            } else {
+                edge(result[1], NFA.EPSILON, next[0]);
+                result = new int[]{result[0], next[1]};
+            }
+        }
+        if (result == null) {
+            int s = newState(), e = newState();
+            edge(s, NFA.EPSILON, e);
+            result = new int[]{s, e};
+        }
+        return result;
+    }
+
+    private int[] repetition() {
+        int[] f = atom();
+        while (pos < pattern.length()) {
+            char op = pattern.charAt(pos);
+            if (op != '*' && op != '+' && op != '?') break;
+            pos++;
+            int s = newState(), e = newState();
+            edge(s, NFA.EPSILON, f[0]);
+            edge(f[1], NFA.EPSILON, e);
+            if (op != '+') edge(s, NFA.EPSILON, e);
+            if (op != '?') edge(f[1], NFA.EPSILON, f[0]);
+            f = new int[]{s, e};
+        }
+        return f;
+    }
+
+    private int[] atom() {
+        int c = nextCodePoint();
+        switch (c) {
+            case '(' -> {
+                int[] f = alternation();
+                if (pos >= pattern.length() || pattern.charAt(pos) != ')')
+                    throw new IllegalArgumentException("Expresión regular inválida: falta ')'");
+                pos++;
+                return f;
+            }
+            case '*', '+', '?' ->
+                    throw new IllegalArgumentException("Expresión regular inválida: '" + (char) c + "' sin operando en la posición " + pos);
+            case '.' -> {
+                if (inferAlphabet)
+                    throw new IllegalArgumentException("Expresión regular inválida: '.' requiere declarar 'symbols:'");
+                int s = newState(), e = newState();
+                for (int a = 0; a < symbols.size(); a++) edge(s, a, e);
+                return new int[]{s, e};
+            }
+            case 'ε' -> {
+                int s = newState(), e = newState();
+                edge(s, NFA.EPSILON, e);
+                return new int[]{s, e};
+            }
+            case '\\' -> {
+                if (pos >= pattern.length())
+                    throw new IllegalArgumentException("Expresión regular inválida: '\\' al final");
+                return literal(nextCodePoint());
+            }
+            default -> {
+                return literal(c);
+            }
+        }
+    }
+
+    private int nextCodePoint() {
+        int c = pattern.codePointAt(pos);
+        pos += Character.charCount(c);
+        return c;
+    }
+
+    private int[] literal(int c) {
+        String name = Character.toString(c);
+        Integer id = symbolIds.get(name);
+        if (id == null) {
+            if (!inferAlphabet)
+                throw new IllegalArgumentException("Símbolo fuera del alfabeto en la expresión regular: " + name);
+            id = symbols.size();
+            symbols.add(name);
+            symbolIds.put(name, id);
+        }
+        int s = newState(), e = newState();
+        edge(s, id, e);
+        return new int[]{s, e};
+    }
+
+    private int newState() {
+        return stateCount++;
+    }
+
+    private void edge(int f, int sym, int t) {
+        if (edges == from.length) {
+            from = Arrays.copyOf(from, edges * 2);
+            symbol = Arrays.copyOf(symbol, edges * 2);
+            to = Arrays.copyOf(to, edges * 2);
+        }
+        from[edges] = f;
+        symbol[edges] = sym;
+        to[edges] = t;
+        edges++;
+    }
+}
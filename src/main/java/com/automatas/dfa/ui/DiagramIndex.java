@@ -0,0 +1,191 @@
+package com.automatas.dfa.ui;
+
+import com.automatas.dfa.layout.Layout;
+import com.automatas.dfa.model.CompiledDFA;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * What {@link DiagramPanel} draws for one DFA and layout: state positions, the
+ * edges (one per pair of states, with the symbols joined into one label) and a
+ * uniform grid over the layout so that only the states and edges inside the
+ * visible rectangle are visited. Edges whose bounding box covers too many cells
+ * are kept in a separate list and tested one by one.
+ */
+final class DiagramIndex {
+    private static final double CELL = 200;
+    private static final int MAX_EDGE_CELLS = 64;
+
+    final CompiledDFA dfa;
+    final Layout layout;
+    final int[] edgeFrom;
+    final int[] edgeTo;
+    final String[] edgeLabel;
+
+    private final double originX, originY;
+    private final int cols, rows;
+    // CSR: estados y aristas de cada celda
+    private final int[] stateCellStart, stateCells;
+    private final int[] edgeCellStart, edgeCells;
+    private final int[] longEdges;
+    // marcas para no visitar dos veces una arista presente en varias celdas
+    private final int[] edgeStamp;
+    private int stamp;
+
+    DiagramIndex(CompiledDFA dfa, Layout layout) {
+        this.dfa = dfa;
+        this.layout = layout;
+        int n = dfa.getStateCount();
+
+        // aristas distintas por par de estados, con los símbolos unidos
+        int[] from = new int[Math.max(16, n)];
+        int[] to = new int[from.length];
+        String[] label = new String[from.length];
+        int m = 0;
+        int[] edgeOf = new int[n];
+        Arrays.fill(edgeOf, -1);
+        for (int q = 0; q < n; q++) {
+            int first = m;
+            for (int a = 0; a < dfa.getSymbolCount(); a++) {
+                int t = dfa.step(q, a);
+                if (t == CompiledDFA.DEAD) continue;
+                int e = edgeOf[t];
+                if (e >= first) {
+                    label[e] = label[e] + "," + dfa.getSymbolName(a);
+                    continue;
+                }
+                if (m == from.length) {
+                    from = Arrays.copyOf(from, 2 * m);
+                    to = Arrays.copyOf(to, 2 * m);
+                    label = Arrays.copyOf(label, 2 * m);
+                }
+                from[m] = q;
+                to[m] = t;
+                label[m] = dfa.getSymbolName(a);
+                edgeOf[t] = m++;
+            }
+        }
+        edgeFrom = Arrays.copyOf(from, m);
+        edgeTo = Arrays.copyOf(to, m);
+        edgeLabel = Arrays.copyOf(label, m);
+
+        originX = layout.getMinX();
+        originY = layout.getMinY();
+        cols = (int) ((layout.getMaxX() - originX) / CELL) + 1;
+        rows = (int) ((layout.getMaxY() - originY) / CELL) + 1;
+        int cellCount = cols * rows;
+
+        stateCellStart = new int[cellCount + 1];
+        for (int q = 0; q < n; q++) stateCellStart[cellOf(q) + 1]++;
+        for (int c = 0; c < cellCount; c++) stateCellStart[c + 1] += stateCellStart[c];
+        stateCells = new int[n];
+        int[] fill = Arrays.copyOf(stateCellStart, cellCount);
+        for (int q = 0; q < n; q++) stateCells[fill[cellOf(q)]++] = q;
+
+        // aristas: en cada celda que toca su caja, o en la lista larga si son demasiadas
+        edgeCellStart = new int[cellCount + 1];
+        int longCount = 0;
+        for (int e = 0; e < m; e++) {
+            if (edgeCellCount(e) > MAX_EDGE_CELLS) {
+                longCount++;
+                continue;
+            }
+            forEachEdgeCell(e, c -> edgeCellStart[c + 1]++);
+        }
+        for (int c = 0; c < cellCount; c++) edgeCellStart[c + 1] += edgeCellStart[c];
+        edgeCells = new int[edgeCellStart[cellCount]];
+        longEdges = new int[longCount];
+        int[] edgeFill = Arrays.copyOf(edgeCellStart, cellCount);
+        longCount = 0;
+        for (int e = 0; e < m; e++) {
+            if (edgeCellCount(e) > MAX_EDGE_CELLS) {
+                longEdges[longCount++] = e;
+                continue;
+            }
+            int edge = e;
+            forEachEdgeCell(e, c -> edgeCells[edgeFill[c]++] = edge);
+        }
+        edgeStamp = new int[m];
+    }
+
+    double x(int state) { return layout.getX(state); }
+    double y(int state) { return layout.getY(state); }
+    int edgeCount() { return edgeFrom.length; }
+
+    private int col(double x) { return Math.max(0, Math.min(cols - 1, (int) ((x - originX) / CELL))); }
+    private int row(double y) { return Math.max(0, Math.min(rows - 1, (int) ((y - originY) / CELL))); }
+    private int cellOf(int q) { return row(y(q)) * cols + col(x(q)); }
+
+    private long edgeCellCount(int e) {
+        int c0 = col(Math.min(x(edgeFrom[e]), x(edgeTo[e]))), c1 = col(Math.max(x(edgeFrom[e]), x(edgeTo[e])));
+        int r0 = row(Math.min(y(edgeFrom[e]), y(edgeTo[e]))), r1 = row(Math.max(y(edgeFrom[e]), y(edgeTo[e])));
+        return (long) (c1 - c0 + 1) * (r1 - r0 + 1);
+    }
+
+    private void forEachEdgeCell(int e, IntConsumer action) {
+        int c0 = col(Math.min(x(edgeFrom[e]), x(edgeTo[e]))), c1 = col(Math.max(x(edgeFrom[e]), x(edgeTo[e])));
+        int r0 = row(Math.min(y(edgeFrom[e]), y(edgeTo[e]))), r1 = row(Math.max(y(edgeFrom[e]), y(edgeTo[e])));
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) action.accept(r * cols + c);
+        }
+    }
+
+    /** States whose position lies in the given layout rectangle. */
+    void states(double x0, double y0, double x1, double y1, IntConsumer action) {
+        int c0 = col(x0), c1 = col(x1), r0 = row(y0), r1 = row(y1);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * cols + c;
+                for (int i = stateCellStart[cell]; i < stateCellStart[cell + 1]; i++) {
+                    int q = stateCells[i];
+                    double x = x(q), y = y(q);
+                    if (x >= x0 && x <= x1 && y >= y0 && y <= y1) action.accept(q);
+                }
+            }
+        }
+    }
+
+    /** Edges whose segment may cross the given layout rectangle, each once. */
+    void edges(double x0, double y0, double x1, double y1, IntConsumer action) {
+        if (++stamp == 0) {
+            Arrays.fill(edgeStamp, 0);
+            stamp = 1;
+        }
+        int c0 = col(x0), c1 = col(x1), r0 = row(y0), r1 = row(y1);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * cols + c;
+                for (int i = edgeCellStart[cell]; i < edgeCellStart[cell + 1]; i++) {
+                    int e = edgeCells[i];
+                    if (edgeStamp[e] == stamp) continue;
+                    edgeStamp[e] = stamp;
+                    if (crosses(e, x0, y0, x1, y1)) action.accept(e);
+                }
+            }
+        }
+        for (int e : longEdges) {
+            if (crosses(e, x0, y0, x1, y1)) action.accept(e);
+        }
+    }
+
+    /** Segment/rectangle test (Liang–Barsky clipping). */
+    private boolean crosses(int e, double x0, double y0, double x1, double y1) {
+        double ax = x(edgeFrom[e]), ay = y(edgeFrom[e]);
+        double dx = x(edgeTo[e]) - ax, dy = y(edgeTo[e]) - ay;
+        double[] p = {-dx, dx, -dy, dy};
+        double[] q = {ax - x0, x1 - ax, ay - y0, y1 - ay};
+        double t0 = 0, t1 = 1;
+        for (int i = 0; i < 4; i++) {
+            if (p[i] == 0) {
+                if (q[i] < 0) return false;
+            } else {
+                double t = q[i] / p[i];
+                if (p[i] < 0) t0 = Math.max(t0, t);
+                else t1 = Math.min(t1, t);
+                if (t0 > t1) return false;
+            }
+        }
+        return true;
+    }
+}
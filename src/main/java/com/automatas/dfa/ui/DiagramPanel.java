@@ -1,31 +1,175 @@
 package com.automatas.dfa.ui;
 
+import com.automatas.dfa.layout.*;
+import com.automatas.dfa.model.CompiledDFA;
 import com.automatas.dfa.model.DFA;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
 
 /**
- * Simple diagram painter for DFA. Draws states in a circle and transitions as arrows.
- * Highlights current state and last traversed edge using provided parameters.
+ * Simple diagram painter for DFA. Draws states where the chosen {@link LayoutAlgorithm}
+ * puts them and transitions as arrows. Highlights current state and last traversed
+ * edge using provided parameters.
+ * <p>
+ * Layouts are computed off the EDT by a {@link LayoutEngine}, cached per DFA, and
+ * shown as they are refined.
+ * <p>
+ * The wheel zooms around the pointer, dragging pans and a double click fits the
+ * whole automaton again. Only the states and edges inside the view are drawn,
+ * looked up in a {@link DiagramIndex}; when zoomed out, labels, arrowheads and
+ * finally state outlines are dropped. The visible part is rendered once into an
+ * image, kept until the DFA, the layout, the view or the panel size changes; a
+ * highlight change only redraws the current state and the last edge on top of it.
  */
 public class DiagramPanel extends JPanel {
     private DFA dfa;
+    // texto mostrado en lugar del diagrama cuando no hay AFD
+    private String emptyMessage;
     private String highlightState;
     private String lastFrom;
     private String lastSym;
     private String lastTo;
+    // capa estática (grafo sin resaltar en la vista actual), en píxeles del dispositivo
+    private BufferedImage staticLayer;
+
+    /** Automatic layout: circle up to this many states, force-directed beyond. */
+    private static final int CIRCLE_MAX_STATES = 16;
+    private static final int MARGIN = 60;
+    private static final double MAX_SCALE = 2.5;
+    private static final double MIN_SCALE = 0.001;
+    private static final int RADIUS = 26;
+    // niveles de detalle, por escala
+    private static final double LABEL_SCALE = 0.5;
+    private static final double ARROW_SCALE = 0.3;
+    private static final double OUTLINE_SCALE = 0.12;
+    // con más elementos visibles se dibuja sin antialiasing / con las aristas en un solo trazo
+    private static final int ANTIALIAS_MAX_ELEMENTS = 2000;
+    private static final int DETAIL_MAX_EDGES = 4000;
+    private static final int LABEL_MAX_STATES = 1000;
+    /** Pause after the last zoom/pan step before the visible part is rendered again. */
+    private static final int SETTLE_MS = 120;
+    private static final LayoutAlgorithm CIRCLE = new CircleLayout();
+    private static final LayoutAlgorithm FORCE = new ForceLayout();
+    private final LayoutEngine layoutEngine = new LayoutEngine();
+    private LayoutAlgorithm layoutAlgorithm; // null: automática
+    private Layout layout;
+    private DiagramIndex index;
+
+    // vista: pantalla = disposición * scale + (offsetX, offsetY)
+    private double scale = 1;
+    private double offsetX, offsetY;
+    // false: la vista se ajusta sola al panel; true: el usuario hizo zoom o desplazó
+    private boolean userView;
+    // vista con la que se dibujó staticLayer; mientras se hace zoom o se desplaza, se reutiliza transformada
+    private double layerScale, layerOffsetX, layerOffsetY;
+    // false mientras se dibuja una capa con demasiados estados a la vista para rotularlos
+    private boolean labels = true;
+    private final Timer settleTimer = new Timer(SETTLE_MS, e -> {
+        staticLayer = null;
+        repaint();
+    });
 
     public DiagramPanel() {
         setBackground(new Color(245, 247, 250));
+        settleTimer.setRepeats(false);
+        MouseAdapter mouse = new MouseAdapter() {
+            private Point dragFrom;
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                dragFrom = e.getPoint();
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (dragFrom == null || layout == null) return;
+                offsetX += e.getX() - dragFrom.x;
+                offsetY += e.getY() - dragFrom.y;
+                dragFrom = e.getPoint();
+                viewChanged();
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                dragFrom = null;
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    userView = false;
+                    staticLayer = null;
+                    repaint();
+                }
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                if (layout == null) return;
+                double factor = Math.pow(1.15, -e.getPreciseWheelRotation());
+                double s = Math.max(MIN_SCALE, Math.min(MAX_SCALE * 4, scale * factor));
+                factor = s / scale;
+                // el punto bajo el cursor queda fijo
+                offsetX = e.getX() - (e.getX() - offsetX) * factor;
+                offsetY = e.getY() - (e.getY() - offsetY) * factor;
+                scale = s;
+                viewChanged();
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+        addMouseWheelListener(mouse);
     }
 
     public void setDfa(DFA dfa) {
         this.dfa = dfa;
+        emptyMessage = null;
+        layout = null;
+        index = null;
+        userView = false;
+        staticLayer = null;
+        requestLayout();
         repaint();
     }
 
+    /** Shows {@code message} instead of a diagram, e.g. when the automaton is too large to build. */
+    public void setEmptyMessage(String message) {
+        setDfa(null);
+        emptyMessage = message;
+    }
+
+    /** Sets the layout algorithm; {@code null} picks one by the number of states. */
+    public void setLayoutAlgorithm(LayoutAlgorithm algorithm) {
+        this.layoutAlgorithm = algorithm;
+        // se sigue mostrando la disposición anterior hasta que llegue la nueva
+        userView = false;
+        requestLayout();
+    }
+
+    private void requestLayout() {
+        DFA d = dfa;
+        if (d == null) {
+            layoutEngine.cancel();
+            return;
+        }
+        LayoutAlgorithm algorithm = layoutAlgorithm != null ? layoutAlgorithm
+                : d.getStates().size() <= CIRCLE_MAX_STATES ? CIRCLE : FORCE;
+        layoutEngine.compute(d, algorithm, l -> {
+            if (dfa != d) return;
+            layout = l;
+            index = null;
+            staticLayer = null;
+            repaint();
+        });
+    }
+
     public void setHighlight(String state, String from, String sym, String to) {
         this.highlightState = state;
         this.lastFrom = from;
@@ -34,70 +178,178 @@ public class DiagramPanel extends JPanel {
         repaint();
     }
 
+    private void viewChanged() {
+        userView = true;
+        settleTimer.restart();
+        repaint();
+    }
+
+    /** Fits the whole layout into a {@code w x h} panel. */
+    private void fitView(int w, int h) {
+        double bw = layout.getMaxX() - layout.getMinX();
+        double bh = layout.getMaxY() - layout.getMinY();
+        double s = MAX_SCALE;
+        if (bw > 0) s = Math.min(s, Math.max(1, w - 2 * MARGIN) / bw);
+        if (bh > 0) s = Math.min(s, Math.max(1, h - 2 * MARGIN) / bh);
+        scale = Math.max(MIN_SCALE, s);
+        offsetX = w / 2.0 - (layout.getMinX() + bw / 2) * scale;
+        offsetY = h / 2.0 - (layout.getMinY() + bh / 2) * scale;
+    }
+
+    private int screenX(int state) { return (int) Math.round(index.x(state) * scale + offsetX); }
+    private int screenY(int state) { return (int) Math.round(index.y(state) * scale + offsetY); }
+
+    /** On-screen state radius: shrinks when zoomed out, never grows past {@link #RADIUS}. */
+    private int radius() {
+        return Math.max(1, (int) Math.round(RADIUS * Math.min(1, scale)));
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        if (dfa == null) return;
+        if (dfa == null) {
+            if (emptyMessage != null) {
+                Graphics2D g2 = (Graphics2D) g.create();
+                drawMessage(g2, emptyMessage, getWidth(), getHeight());
+                g2.dispose();
+            }
+            return;
+        }
         Graphics2D g2 = (Graphics2D) g.create();
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        AffineTransform device = g2.getTransform();
         int w = getWidth();
         int h = getHeight();
-        int cx = w / 2;
-        int cy = h / 2;
-        int radius = Math.max(80, Math.min(w, h) / 2 - 60);
-
-        java.util.List<String> states = new ArrayList<>(dfa.getStates());
-        int n = states.size();
-        Map<String, Point> pos = new HashMap<>();
-        for (int i = 0; i < n; i++) {
-            double angle = 2 * Math.PI * i / n - Math.PI / 2;
-            int x = cx + (int) (radius * Math.cos(angle));
-            int y = cy + (int) (radius * Math.sin(angle));
-            pos.put(states.get(i), new Point(x, y));
+        int iw = (int) Math.ceil(w * device.getScaleX());
+        int ih = (int) Math.ceil(h * device.getScaleY());
+        if (iw <= 0 || ih <= 0) {
+            g2.dispose();
+            return;
+        }
+        if (layout == null) {
+            drawMessage(g2, "Calculando disposición…", w, h);
+            g2.dispose();
+            return;
+        }
+        if (index == null) index = new DiagramIndex(dfa.getCompiled(), layout);
+        if (staticLayer == null || staticLayer.getWidth() != iw || staticLayer.getHeight() != ih) {
+            if (!userView) fitView(w, h);
+            renderStaticLayer(w, h, iw, ih);
+        }
+        if (layerScale == scale && layerOffsetX == offsetX && layerOffsetY == offsetY) {
+            g2.drawImage(staticLayer, 0, 0, w, h, null);
+        } else {
+            // zoom o desplazamiento en curso: la capa anterior, transformada, hasta que se vuelva a dibujar
+            double f = scale / layerScale;
+            AffineTransform t = new AffineTransform();
+            t.translate(offsetX - layerOffsetX * f, offsetY - layerOffsetY * f);
+            t.scale(f * w / iw, f * h / ih);
+            g2.drawImage(staticLayer, t, null);
         }
 
+        // encima solo lo que cambia en cada paso: la última arista y el estado actual
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        CompiledDFA compiled = index.dfa;
+        int from = compiled.stateId(lastFrom);
+        int to = compiled.stateId(lastTo);
+        int current = compiled.stateId(highlightState);
+        if (from != CompiledDFA.DEAD && to != CompiledDFA.DEAD
+                && compiled.step(from, compiled.symbolId(lastSym)) == to) {
+            drawArrow(g2, from, to, lastSym, true);
+            // repintar los extremos para que la arista quede debajo, como en la capa estática
+            if (from != current) drawState(g2, from, false);
+            if (to != current) drawState(g2, to, false);
+        }
+        if (current != CompiledDFA.DEAD) drawState(g2, current, true);
+        g2.dispose();
+    }
+
+    /** Draws the unhighlighted states and edges inside the current view. */
+    private void renderStaticLayer(int w, int h, int iw, int ih) {
+        staticLayer = new BufferedImage(iw, ih, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g2 = staticLayer.createGraphics();
+        g2.scale((double) iw / w, (double) ih / h);
+        g2.setFont(getFont());
+        layerScale = scale;
+        layerOffsetX = offsetX;
+        layerOffsetY = offsetY;
+
+        // rectángulo visible en coordenadas de la disposición, con margen para bucles y etiquetas
+        double pad = (2 * radius() + 40) / scale;
+        double x0 = -offsetX / scale - pad, y0 = -offsetY / scale - pad;
+        double x1 = (w - offsetX) / scale + pad, y1 = (h - offsetY) / scale + pad;
+
+        // nivel de detalle según la escala y según cuántos elementos quedan a la vista
+        int[] visible = new int[2];
+        index.states(x0, y0, x1, y1, q -> visible[0]++);
+        index.edges(x0, y0, x1, y1, e -> visible[1]++);
+        boolean detailed = scale >= ARROW_SCALE && visible[1] <= DETAIL_MAX_EDGES;
+        if (visible[0] + visible[1] <= ANTIALIAS_MAX_ELEMENTS) {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        }
+        labels = visible[0] <= LABEL_MAX_STATES;
+
         // draw transitions first
-        for (String from : dfa.getTransitions().keySet()) {
-            Map<String, String> map = dfa.getTransitions().get(from);
-            for (Map.Entry<String, String> e : map.entrySet()) {
-                String sym = e.getKey();
-                String to = e.getValue();
-                Point p1 = pos.get(from);
-                Point p2 = pos.get(to);
-                if (p1 == null || p2 == null) continue;
-                boolean highlightEdge = Objects.equals(lastFrom, from) && Objects.equals(lastSym, sym) && Objects.equals(lastTo, to);
-                drawArrow(g2, p1, p2, sym, highlightEdge);
-            }
+        if (detailed) {
+            index.edges(x0, y0, x1, y1, e -> drawArrow(g2, index.edgeFrom[e], index.edgeTo[e], index.edgeLabel[e], false));
+        } else {
+            // vista lejana: todas las aristas en un solo trazo, sin puntas ni etiquetas
+            Path2D.Float lines = new Path2D.Float(Path2D.WIND_NON_ZERO, 4096);
+            index.edges(x0, y0, x1, y1, e -> {
+                int a = index.edgeFrom[e], b = index.edgeTo[e];
+                if (a == b) return;
+                lines.moveTo(screenX(a), screenY(a));
+                lines.lineTo(screenX(b), screenY(b));
+            });
+            g2.setStroke(new BasicStroke(1f));
+            g2.setColor(new Color(160, 174, 192));
+            g2.draw(lines);
         }
 
         // draw states
-        for (String s : states) {
-            Point p = pos.get(s);
-            boolean isAccept = dfa.getAcceptStates().contains(s);
-            boolean isStart = dfa.getStartState().equals(s);
-            boolean isHighlight = Objects.equals(highlightState, s);
-            drawState(g2, p.x, p.y, s, isStart, isAccept, isHighlight);
+        if (scale >= OUTLINE_SCALE) {
+            index.states(x0, y0, x1, y1, q -> drawState(g2, q, false));
+        } else {
+            g2.setColor(new Color(96, 108, 118));
+            int r = Math.max(1, radius());
+            index.states(x0, y0, x1, y1, q -> g2.fillRect(screenX(q) - r, screenY(q) - r, 2 * r, 2 * r));
         }
+        labels = true;
         g2.dispose();
     }
 
+    private void drawMessage(Graphics2D g2, String msg, int w, int h) {
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2.setColor(new Color(96, 108, 118));
+        FontMetrics fm = g2.getFontMetrics();
+        g2.drawString(msg, (w - fm.stringWidth(msg)) / 2, h / 2);
+    }
+
+    private void drawState(Graphics2D g2, int state, boolean highlight) {
+        CompiledDFA compiled = index.dfa;
+        drawState(g2, screenX(state), screenY(state), compiled.getStateName(state),
+                state == compiled.getStartState(), compiled.isAccept(state), highlight);
+    }
+
     private void drawState(Graphics2D g2, int x, int y, String name, boolean start, boolean accept, boolean highlight) {
-        int r = 26;
+        int r = radius();
         Color base = highlight ? new Color(69, 123, 157) : new Color(96, 108, 118);
         g2.setColor(new Color(255,255,255));
         g2.fillOval(x - r, y - r, 2 * r, 2 * r);
         g2.setStroke(new BasicStroke(2f));
         g2.setColor(base);
         g2.drawOval(x - r, y - r, 2 * r, 2 * r);
-        if (accept) {
-            g2.drawOval(x - r + 4, y - r + 4, 2 * (r - 4), 2 * (r - 4));
+        if (accept && r > 8) {
+            int d = Math.max(2, r * 4 / RADIUS);
+            g2.drawOval(x - r + d, y - r + d, 2 * (r - d), 2 * (r - d));
         }
         // start arrow
         if (start) {
             g2.setColor(new Color(38, 70, 83));
-            g2.drawLine(x - 50, y, x - r, y);
+            g2.drawLine(x - r - 24, y, x - r, y);
             g2.fillPolygon(new int[]{x - r, x - r - 8, x - r - 8}, new int[]{y, y - 5, y + 5}, 3);
         }
+        if (!labels || scale < LABEL_SCALE) return;
         // name
         g2.setColor(new Color(33, 37, 41));
         FontMetrics fm = g2.getFontMetrics();
@@ -105,28 +357,31 @@ public class DiagramPanel extends JPanel {
         g2.drawString(name, x - tw / 2, y + fm.getAscent() / 2 - 2);
     }
 
-    private void drawArrow(Graphics2D g2, Point p1, Point p2, String label, boolean highlight) {
-        int dx = p2.x - p1.x;
-        int dy = p2.y - p1.y;
+    private void drawArrow(Graphics2D g2, int from, int to, String label, boolean highlight) {
+        int r = radius();
+        int p1x = screenX(from), p1y = screenY(from);
+        int p2x = screenX(to), p2y = screenY(to);
+        boolean labels = this.labels && scale >= LABEL_SCALE;
+        int dx = p2x - p1x;
+        int dy = p2y - p1y;
         double dist = Math.hypot(dx, dy);
-        if (dist < 1) {
+        g2.setColor(highlight ? new Color(230, 57, 70) : new Color(160, 174, 192));
+        if (from == to || dist < 1) {
             // self-loop
-            int r = 30;
-            g2.setColor(highlight ? new Color(230, 57, 70) : new Color(160, 174, 192));
-            g2.drawArc(p1.x - r, p1.y - r - 20, 2 * r, 2 * r, 200, 220);
-            g2.drawString(label, p1.x - r, p1.y - r - 24);
+            int lr = r + 4;
+            g2.setStroke(new BasicStroke(1.8f));
+            g2.drawArc(p1x - lr, p1y - lr - r * 20 / RADIUS, 2 * lr, 2 * lr, 200, 220);
+            if (labels) g2.drawString(label, p1x - lr, p1y - lr - r * 24 / RADIUS);
             return;
         }
         double ux = dx / dist;
         double uy = dy / dist;
-        int startOffset = 28;
-        int endOffset = 28;
-        int x1 = (int) (p1.x + ux * startOffset);
-        int y1 = (int) (p1.y + uy * startOffset);
-        int x2 = (int) (p2.x - ux * endOffset);
-        int y2 = (int) (p2.y - uy * endOffset);
+        int offset = r + 2;
+        int x1 = (int) (p1x + ux * offset);
+        int y1 = (int) (p1y + uy * offset);
+        int x2 = (int) (p2x - ux * offset);
+        int y2 = (int) (p2y - uy * offset);
         g2.setStroke(new BasicStroke(1.8f));
-        g2.setColor(highlight ? new Color(230, 57, 70) : new Color(160, 174, 192));
         g2.drawLine(x1, y1, x2, y2);
         // arrow head
         int ah = 8;
@@ -137,6 +392,7 @@ public class DiagramPanel extends JPanel {
         int xh2 = (int) (x2 - ah * Math.cos(angle) - aw * Math.sin(angle));
         int yh2 = (int) (y2 - ah * Math.sin(angle) + aw * Math.cos(angle));
         g2.fillPolygon(new int[]{x2, xh1, xh2}, new int[]{y2, yh1, yh2}, 3);
+        if (!labels) return;
         // label
         int lx = (x1 + x2) / 2;
         int ly = (y1 + y2) / 2;
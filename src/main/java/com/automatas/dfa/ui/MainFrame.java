@@ -1,9 +1,23 @@
 package com.automatas.dfa.ui;
 
 
+import com.automatas.dfa.engine.BatchEvaluator;
+import com.automatas.dfa.engine.DFAMinimizer;
+import com.automatas.dfa.engine.LazyDFA;
+import com.automatas.dfa.engine.Matcher;
+import com.automatas.dfa.engine.MatcherCompiler;
+import com.automatas.dfa.layout.CircleLayout;
+import com.automatas.dfa.layout.ForceLayout;
+import com.automatas.dfa.layout.LayeredLayout;
+import com.automatas.dfa.layout.LayoutAlgorithm;
 import com.automatas.dfa.model.DFA;
+import com.automatas.dfa.model.CompiledDFA;
 import com.automatas.dfa.model.DFASimulation;
+import com.automatas.dfa.model.NFA;
+import com.automatas.dfa.model.Utf8;
+import com.automatas.dfa.parser.CorpusIndex;
 import com.automatas.dfa.parser.DFAParser;
+import com.automatas.dfa.parser.MappedCorpusReader;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
@@ -31,10 +45,16 @@ public class MainFrame extends JFrame {
     private final DiagramPanel diagramPanel = new DiagramPanel();
     private final StringsTableModel stringsTableModel = new StringsTableModel();
     private final JTable stringsTable = new JTable(stringsTableModel);
+    private final TableRowSorter<StringsTableModel> stringsSorter = new TableRowSorter<>(stringsTableModel);
 
     private final JTextArea editor = new JTextArea(12, 60);
 
     private DFA currentDfa;
+    // Definición no determinista: sus cadenas se evalúan con LazyDFA (caché acotada) y currentDfa es
+    // solo su determinización para el diagrama y la tabla, o null si excede LazyDFA.DEFAULT_MAX_DFA_STATES
+    private NFA currentNfa;
+    // CRC-32 del texto de la definición cargada: identifica al autómata en el archivo de resultados de un corpus
+    private int currentStamp;
     private DFASimulation currentSim;
 
     // Controls
@@ -43,10 +63,24 @@ public class MainFrame extends JFrame {
     private final JButton btnReset = new JButton("Reiniciar");
     private final JButton btnAuto = new JButton("Auto ▶");
     private javax.swing.Timer autoTimer;
+    // Barra de desplazamiento por la cadena: salta a cualquier posición con DFASimulation.seek
+    private final JSlider scrubber = new JSlider(0, 0, 0);
+    private final JLabel scrubberLabel = new JLabel("0 / 0");
+    private boolean syncingScrubber;
+    private SwingWorker<Void, Void> seekWorker;
+    // saltos más largos que esto se calculan fuera del EDT
+    private static final int BACKGROUND_SEEK = 1 << 22;
 
     private final JTextField inputField = new JTextField(20);
     private final JButton btnAddString = new JButton("Añadir cadena");
     private final JButton btnRunAll = new JButton("Procesar todas");
+    private final JButton btnCancelRun = new JButton("Cancelar");
+    private final JProgressBar batchProgress = new JProgressBar(0, 100);
+    private final BatchEvaluator batchEvaluator = new BatchEvaluator();
+    // Evaluar las cadenas con una clase generada para el AFD (MatcherCompiler) en lugar de la tabla
+    private final JCheckBoxMenuItem useGenerated = new JCheckBoxMenuItem("Evaluar con reconocedor generado");
+    private SwingWorker<Boolean, BatchChunk> batchWorker;
+    private SwingWorker<CorpusIndex, Void> corpusWorker;
 
     public MainFrame() {
         super("Simulador AFD — Automatas Eddy");
@@ -119,9 +153,18 @@ public class MainFrame extends JFrame {
         mFile.add(new JMenuItem(new AbstractAction("Nuevo") {
             @Override public void actionPerformed(ActionEvent e) { onNew(); }
         }));
+        mFile.add(new JMenuItem(new AbstractAction("Abrir corpus…") {
+            @Override public void actionPerformed(ActionEvent e) { onOpenCorpus(); }
+        }));
         mFile.add(new JMenuItem(new AbstractAction("Guardar…") {
             @Override public void actionPerformed(ActionEvent e) { onSave(); }
         }));
+        mFile.add(new JMenuItem(new AbstractAction("Minimizar AFD") {
+            @Override public void actionPerformed(ActionEvent e) { onMinimize(); }
+        }));
+        useGenerated.setToolTipText("Genera una clase JVM para el AFD; si es demasiado grande o sus símbolos "
+                + "no son caracteres simples, se usa la tabla de transiciones");
+        mFile.add(useGenerated);
         mFile.addSeparator();
         mFile.add(new JMenuItem(new AbstractAction("Regresar a inicio") {
             @Override public void actionPerformed(ActionEvent e) { goHome(); }
@@ -166,12 +209,18 @@ public class MainFrame extends JFrame {
 //        tb.add(btnAddString);
         btnAddString.addActionListener(e -> {
             String s = inputField.getText();
-            if (s != null) {
+            if (s != null && !stringsTableModel.isCorpus()) {
                 stringsTableModel.addString(s);
             }
         });
         tb.add(btnRunAll);
         btnRunAll.addActionListener(e -> processAllStrings());
+        batchProgress.setStringPainted(true);
+        batchProgress.setVisible(false);
+        btnCancelRun.setVisible(false);
+        btnCancelRun.addActionListener(e -> cancelBatch());
+        tb.add(batchProgress);
+        tb.add(btnCancelRun);
 
         return tb;
     }
@@ -195,7 +244,13 @@ public class MainFrame extends JFrame {
         JScrollPane transitionsScroll = new JScrollPane(transitionTable);
 
         stringsTable.setFillsViewportHeight(true);
-        stringsTable.setRowSorter(new TableRowSorter<>(stringsTable.getModel()));
+        stringsTable.setRowSorter(stringsSorter);
+        // ordenar un corpus en disco obligaría a leerlo completo en memoria
+        stringsTableModel.addTableModelListener(e -> {
+            boolean sortable = !stringsTableModel.isCorpus();
+            stringsSorter.setSortable(0, sortable);
+            stringsSorter.setSortable(1, sortable);
+        });
         JScrollPane stringsScroll = new JScrollPane(stringsTable);
 
         editor.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 13));
@@ -203,6 +258,7 @@ public class MainFrame extends JFrame {
 
         JPanel diagWrap = new JPanel(new BorderLayout());
         diagWrap.add(diagramPanel, BorderLayout.CENTER);
+        diagWrap.add(createLayoutChooser(), BorderLayout.NORTH);
 
         // Split vertical izquierdo (transiciones arriba, cadenas abajo)
         JSplitPane leftSplit = new JSplitPane(JSplitPane.VERTICAL_SPLIT, transitionsScroll, stringsScroll);
@@ -227,6 +283,20 @@ public class MainFrame extends JFrame {
         return mainSplit;
     }
 
+    private JPanel createLayoutChooser() {
+        // null = automática (según el número de estados)
+        LayoutAlgorithm[] algorithms = {null, new CircleLayout(), new LayeredLayout(), new ForceLayout()};
+        String[] names = new String[algorithms.length];
+        names[0] = "Automática";
+        for (int i = 1; i < algorithms.length; i++) names[i] = algorithms[i].getName();
+        JComboBox<String> choice = new JComboBox<>(names);
+        choice.addActionListener(e -> diagramPanel.setLayoutAlgorithm(algorithms[choice.getSelectedIndex()]));
+        JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        panel.add(new JLabel("Disposición:"));
+        panel.add(choice);
+        return panel;
+    }
+
     private JPanel createBottomControls() {
         JPanel panel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         panel.setBorder(new EmptyBorder(8,8,8,8));
@@ -234,6 +304,15 @@ public class MainFrame extends JFrame {
         btnNext.addActionListener(e -> stepForward());
         btnReset.addActionListener(e -> resetSimulation());
         btnAuto.addActionListener(e -> toggleAuto());
+        scrubber.setPreferredSize(new Dimension(320, scrubber.getPreferredSize().height));
+        scrubber.addChangeListener(e -> {
+            if (syncingScrubber) return;
+            scrubberLabel.setText(scrubber.getValue() + " / " + scrubber.getMaximum());
+            // mientras se arrastra solo cambia la etiqueta; el salto se hace al soltar
+            if (!scrubber.getValueIsAdjusting()) seekTo(scrubber.getValue());
+        });
+        panel.add(scrubberLabel);
+        panel.add(scrubber);
         panel.add(btnPrev);
         panel.add(btnNext);
         panel.add(btnReset);
@@ -248,12 +327,11 @@ public class MainFrame extends JFrame {
             File f = ch.getSelectedFile();
             try {
                 DFAParser.ParseResult res = DFAParser.parseFileAll(f);
-                setCurrentDfa(res.getDfa());
-                editor.setText(new String(java.nio.file.Files.readAllBytes(f.toPath())));
+                String text = new String(java.nio.file.Files.readAllBytes(f.toPath()));
+                setCurrentDefinition(res, text);
+                editor.setText(text);
                 stringsTableModel.clear();
-                for (String s : res.getStrings()) {
-                    stringsTableModel.addString(s);
-                }
+                stringsTableModel.addAll(res.getStrings());
                 goToSim();
             } catch (Exception ex) {
                 showError("No se pudo abrir el archivo: " + ex.getMessage());
@@ -261,6 +339,52 @@ public class MainFrame extends JFrame {
         }
     }
 
+    private void onOpenCorpus() {
+        if (!hasAutomaton()) { showError("Cargue un AFD primero."); return; }
+        if (corpusWorker != null && !corpusWorker.isDone()) return;
+        JFileChooser ch = new JFileChooser();
+        if (ch.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        java.nio.file.Path file = ch.getSelectedFile().toPath();
+        cancelBatch();
+
+        corpusWorker = new SwingWorker<>() {
+            @Override
+            protected CorpusIndex doInBackground() throws IOException {
+                long size = java.nio.file.Files.size(file);
+                // una pasada sobre el archivo: solo se guarda el offset de una de cada CorpusIndex.STRIDE líneas
+                CorpusIndex index = CorpusIndex.open(file, scanned -> {
+                    if (isCancelled()) throw new java.util.concurrent.CancellationException();
+                    setProgress(size == 0 ? 100 : (int) (100 * scanned / size));
+                });
+                if (isCancelled()) {
+                    // nadie lo va a recibir en done()
+                    index.close();
+                    return null;
+                }
+                return index;
+            }
+
+            @Override
+            protected void done() {
+                setBatchRunning(false);
+                if (isCancelled()) return;
+                try {
+                    stringsSorter.setSortKeys(null);
+                    stringsTableModel.setCorpus(get(), currentStamp);
+                } catch (java.util.concurrent.ExecutionException ex) {
+                    showError("No se pudo abrir el corpus: " + ex.getCause().getMessage());
+                } catch (Exception ex) {
+                    showError("No se pudo abrir el corpus: " + ex.getMessage());
+                }
+            }
+        };
+        corpusWorker.addPropertyChangeListener(evt -> {
+            if ("progress".equals(evt.getPropertyName())) batchProgress.setValue((Integer) evt.getNewValue());
+        });
+        setBatchRunning(true);
+        corpusWorker.execute();
+    }
+
     private void onNew() {
         String template = "# Definición de AFD\n" +
                 "symbols: a,b\n" +
@@ -277,11 +401,9 @@ public class MainFrame extends JFrame {
         editor.setText(template);
         try {
             DFAParser.ParseResult res = DFAParser.parseAll(template);
-            setCurrentDfa(res.getDfa());
+            setCurrentDefinition(res, template);
             stringsTableModel.clear();
-            for (String s : res.getStrings()) {
-                stringsTableModel.addString(s);
-            }
+            stringsTableModel.addAll(res.getStrings());
         } catch (Exception ex) {
             // ignore template errors
         }
@@ -295,6 +417,11 @@ public class MainFrame extends JFrame {
             File f = ch.getSelectedFile();
             try {
                 DFAParser.saveTextToFile(text, f);
+                try {
+                    DFAParser.saveCompiled(DFAParser.parse(text), f);
+                } catch (IllegalArgumentException ignored) {
+                    // definición inválida: solo se guarda el texto
+                }
                 JOptionPane.showMessageDialog(this, "Archivo guardado.");
             } catch (IOException e) {
                 showError("No se pudo guardar: " + e.getMessage());
@@ -302,6 +429,31 @@ public class MainFrame extends JFrame {
         }
     }
 
+    private void onMinimize() {
+        if (!hasAutomaton()) { showError("Cargue un AFD primero."); return; }
+        if (currentDfa == null) {
+            showError("No se puede minimizar: el AFN excede " + LazyDFA.DEFAULT_MAX_DFA_STATES + " estados al determinizarlo.");
+            return;
+        }
+        try {
+            int before = currentDfa.getStates().size();
+            DFA minimal = DFAMinimizer.minimize(currentDfa).getDfa();
+            // un corpus en disco no se copia al editor
+            int n = stringsTableModel.isCorpus() ? 0 : stringsTableModel.size();
+            java.util.List<String> strings = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) strings.add(stringsTableModel.getInput(i));
+            currentSim = null;
+            currentNfa = null;
+            setCurrentDfa(minimal);
+            editor.setText(DFAParser.toText(minimal, strings));
+            currentStamp = stamp(editor.getText());
+            JOptionPane.showMessageDialog(this,
+                    "AFD minimizado: " + before + " → " + minimal.getStates().size() + " estados.");
+        } catch (Exception ex) {
+            showError("No se pudo minimizar: " + ex.getMessage());
+        }
+    }
+
     private void showAbout() {
         JOptionPane.showMessageDialog(this,
                 "Simulador AFD\nUniversidad: Mariano Galvez de Guatemala\nCurso: Autómatas y Lenguajes Formales\nFecha: " + java.time.LocalDate.now() +
@@ -385,7 +537,47 @@ public class MainFrame extends JFrame {
         }
     }
 
+    /**
+     * Loads a parsed definition. An NFA is determinized in full only for the
+     * diagram and the table; past the limit those views stay empty and its
+     * strings are still evaluated lazily.
+     */
+    private void setCurrentDefinition(DFAParser.ParseResult res, String source) {
+        currentNfa = res.getNfa();
+        currentStamp = stamp(source);
+        String tooLarge = null;
+        DFA dfa;
+        try {
+            dfa = res.getDfa();
+        } catch (IllegalArgumentException ex) {
+            if (currentNfa == null) throw ex;
+            dfa = null;
+            tooLarge = ex.getMessage();
+        }
+        currentSim = null;
+        setCurrentDfa(dfa);
+        if (tooLarge != null) {
+            diagramPanel.setEmptyMessage(tooLarge + ": no se muestra el diagrama.");
+            JOptionPane.showMessageDialog(this,
+                    tooLarge + ".\nEl diagrama, la tabla de transiciones y la simulación paso a paso no están disponibles;"
+                            + "\nlas cadenas se evalúan determinizando bajo demanda (caché de "
+                            + LazyDFA.DEFAULT_MAX_STATES + " estados).",
+                    "AFN demasiado grande", JOptionPane.WARNING_MESSAGE);
+        }
+    }
+
+    private static int stamp(String source) {
+        java.util.zip.CRC32 crc = new java.util.zip.CRC32();
+        crc.update(source.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        return (int) crc.getValue();
+    }
+
+    private boolean hasAutomaton() {
+        return currentDfa != null || currentNfa != null;
+    }
+
     private void setCurrentDfa(DFA dfa) {
+        cancelBatch();
         this.currentDfa = dfa;
         transitionTableModel.setDfa(dfa);
         diagramPanel.setDfa(dfa);
@@ -395,18 +587,30 @@ public class MainFrame extends JFrame {
 
     private void resetSimulation() {
         if (currentDfa == null || currentSim == null) return;
+        if (isSeeking()) {
+            // la simulación está ocupada en segundo plano: se descarta
+            currentSim = null;
+            updateControlsEnabled();
+            return;
+        }
         currentSim.reset();
         updateDiagramHighlight();
         updateControlsEnabled();
     }
 
     private void startSimulationFromInput() {
-        if (currentDfa == null) {
+        if (!hasAutomaton()) {
             showError("Primero cargue un AFD (Archivo > Abrir o Nuevo).");
             return;
         }
         String in = inputField.getText();
         if (in == null) in = "";
+        if (currentDfa == null) {
+            // sin determinización completa no hay estados que resaltar: solo el resultado
+            boolean accepted = new LazyDFA(currentNfa).accepts(in);
+            JOptionPane.showMessageDialog(this, "La cadena es " + (accepted ? "aceptada." : "rechazada."));
+            return;
+        }
         currentSim = new DFASimulation(currentDfa, in);
         updateDiagramHighlight();
         updateControlsEnabled();
@@ -431,6 +635,42 @@ public class MainFrame extends JFrame {
         }
     }
 
+    /**
+     * Jumps to {@code target} with {@link DFASimulation#seek}; the diagram and the
+     * transition table are refreshed once, when the jump is done.
+     */
+    private void seekTo(int target) {
+        if (currentSim == null || isSeeking() || target == currentSim.getIndex()) return;
+        if (autoTimer != null && autoTimer.isRunning()) toggleAuto();
+        DFASimulation sim = currentSim;
+        if (Math.abs(target - sim.getIndex()) < BACKGROUND_SEEK) {
+            sim.seek(target);
+            updateDiagramHighlight();
+            updateControlsEnabled();
+            return;
+        }
+        seekWorker = new SwingWorker<>() {
+            @Override
+            protected Void doInBackground() {
+                sim.seek(target);
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                seekWorker = null;
+                if (currentSim == sim) updateDiagramHighlight();
+                updateControlsEnabled();
+            }
+        };
+        updateControlsEnabled();
+        seekWorker.execute();
+    }
+
+    private boolean isSeeking() {
+        return seekWorker != null;
+    }
+
     private void toggleAuto() {
         if (currentSim == null) { startSimulationFromInput(); }
         if (currentSim == null) return;
@@ -447,13 +687,164 @@ public class MainFrame extends JFrame {
     }
 
     private void processAllStrings() {
-        if (currentDfa == null) { showError("Cargue un AFD primero."); return; }
-        for (int i = 0; i < stringsTableModel.size(); i++) {
-            String s = stringsTableModel.get(i).input;
-            DFASimulation sim = new DFASimulation(currentDfa, s);
-            while (sim.canStepForward()) sim.stepForward();
-            stringsTableModel.setResult(i, sim.isAccepted());
+        if (!hasAutomaton()) { showError("Cargue un AFD primero."); return; }
+        if (batchWorker != null && !batchWorker.isDone()) return;
+        if (stringsTableModel.isCorpus()) { processCorpus(); return; }
+        // Vista de las cadenas tomada en el EDT (no cambia aunque se agreguen filas); la evaluación corre en segundo plano
+        java.util.List<CharSequence> inputs = stringsTableModel.inputs();
+        DFA dfa = currentDfa;
+        NFA nfa = currentNfa;
+        boolean generate = useGenerated.isSelected() && nfa == null;
+        int total = inputs.size();
+
+        batchWorker = new SwingWorker<>() {
+            private final java.util.concurrent.atomic.AtomicInteger done = new java.util.concurrent.atomic.AtomicInteger();
+
+            @Override
+            protected Boolean doInBackground() {
+                if (nfa != null) {
+                    // AFN: cada hilo con su LazyDFA, sin determinizar por completo
+                    return batchEvaluator.evaluate(LazyDFA.matcher(nfa), inputs, (start, accepted) -> {
+                        publish(new BatchChunk(start, accepted));
+                        setProgress(total == 0 ? 100 : (int) (100L * done.addAndGet(accepted.length) / total));
+                    }, this::isCancelled);
+                }
+                Matcher generated = generate ? MatcherCompiler.generate(dfa) : null;
+                if (generated != null) {
+                    // la clase generada recorre cada cadena entera: no comparte prefijos como el trie
+                    return batchEvaluator.evaluate(generated, inputs, (start, accepted) -> {
+                        publish(new BatchChunk(start, accepted));
+                        setProgress(total == 0 ? 100 : (int) (100L * done.addAndGet(accepted.length) / total));
+                    }, this::isCancelled);
+                }
+                // trie implícito: los prefijos compartidos y los duplicados se evalúan una sola vez
+                return batchEvaluator.evaluateShared(dfa, inputs, (rows, accepted) -> {
+                    publish(new BatchChunk(rows, accepted));
+                    setProgress(total == 0 ? 100 : (int) (100L * done.addAndGet(accepted.length) / total));
+                }, this::isCancelled);
+            }
+
+            @Override
+            protected void process(java.util.List<BatchChunk> chunks) {
+                if (isCancelled()) return;
+                for (BatchChunk c : chunks) {
+                    if (c.rows != null) stringsTableModel.setResults(c.rows, c.accepted);
+                    else stringsTableModel.setResults(c.start, c.accepted);
+                }
+            }
+
+            @Override
+            protected void done() {
+                setBatchRunning(false);
+            }
+        };
+        batchWorker.addPropertyChangeListener(evt -> {
+            if ("progress".equals(evt.getPropertyName())) batchProgress.setValue((Integer) evt.getNewValue());
+        });
+        setBatchRunning(true);
+        batchWorker.execute();
+    }
+
+    /** Streams the corpus file and writes the results to its side file as they come. */
+    private void processCorpus() {
+        CompiledDFA dfa = currentNfa == null ? currentDfa.getCompiled() : null;
+        NFA nfa = currentNfa;
+        java.nio.file.Path file = stringsTableModel.getCorpus().getFile();
+        int total = stringsTableModel.size();
+        Matcher generated = useGenerated.isSelected() && nfa == null ? MatcherCompiler.generate(currentDfa) : null;
+        Matcher matcher = nfa != null ? LazyDFA.matcher(nfa) : generated != null ? generated : currentDfa::accepts;
+        if (!stringsTableModel.prepareResults(currentStamp, matcher)) {
+            JOptionPane.showMessageDialog(this,
+                    "No se pudo escribir " + file + StringsTableModel.RESULTS_SUFFIX
+                            + ": cada cadena se evalúa al mostrarse en la tabla.",
+                    "Resultados del corpus", JOptionPane.WARNING_MESSAGE);
+            return;
         }
+        // resultados de una ejecución anterior del mismo autómata: esas filas no se vuelven a evaluar
+        java.nio.ByteBuffer stored = stringsTableModel.storedResults();
+
+        batchWorker = new SwingWorker<>() {
+            @Override
+            protected Boolean doInBackground() throws IOException {
+                int[] next = {0};
+                LazyDFA lazy = nfa != null ? new LazyDFA(nfa) : null;
+                try {
+                    new MappedCorpusReader(file).forEachBatch(8192, batch -> {
+                        if (isCancelled()) throw new java.util.concurrent.CancellationException();
+                        boolean[] accepted = new boolean[batch.size()];
+                        boolean evaluated = false;
+                        for (int i = 0; i < accepted.length; i++) {
+                            byte status = stored.get(next[0] + i);
+                            if (status != StringsTableModel.PENDING) {
+                                accepted[i] = status == StringsTableModel.ACCEPTED;
+                                continue;
+                            }
+                            if (generated != null) {
+                                // la clase generada lee chars: se decodifica la línea (null si no es UTF-8 válido)
+                                CharSequence line = Utf8.decodeChars(batch.buffer(), batch.offset(i), batch.length(i));
+                                accepted[i] = line != null && generated.accepts(line);
+                            } else {
+                                accepted[i] = lazy != null ? lazy.accepts(batch.buffer(), batch.offset(i), batch.length(i))
+                                        : dfa.accepts(batch.buffer(), batch.offset(i), batch.length(i));
+                            }
+                            evaluated = true;
+                        }
+                        if (evaluated) publish(new BatchChunk(next[0], accepted));
+                        next[0] += accepted.length;
+                        setProgress(total == 0 ? 100 : (int) Math.min(100, 100L * next[0] / total));
+                    });
+                } catch (java.util.concurrent.CancellationException ex) {
+                    return false;
+                }
+                return true;
+            }
+
+            @Override
+            protected void process(java.util.List<BatchChunk> chunks) {
+                if (isCancelled()) return;
+                for (BatchChunk c : chunks) stringsTableModel.setResults(c.start, c.accepted);
+            }
+
+            @Override
+            protected void done() {
+                setBatchRunning(false);
+                stringsTableModel.flushResults();
+                try {
+                    get();
+                } catch (java.util.concurrent.CancellationException ignored) {
+                    // cancelado por el usuario
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    showError("No se pudo leer el corpus: " + cause.getMessage());
+                }
+            }
+        };
+        batchWorker.addPropertyChangeListener(evt -> {
+            if ("progress".equals(evt.getPropertyName())) batchProgress.setValue((Integer) evt.getNewValue());
+        });
+        setBatchRunning(true);
+        batchWorker.execute();
+    }
+
+    private void cancelBatch() {
+        if (batchWorker != null) batchWorker.cancel(false);
+        if (corpusWorker != null) corpusWorker.cancel(false);
+    }
+
+    private void setBatchRunning(boolean running) {
+        batchProgress.setValue(0);
+        batchProgress.setVisible(running);
+        btnCancelRun.setVisible(running);
+        btnRunAll.setEnabled(!running);
+    }
+
+    private static final class BatchChunk {
+        // filas dispersas, o null si el bloque es contiguo a partir de start
+        final int[] rows;
+        final int start;
+        final boolean[] accepted;
+        BatchChunk(int[] rows, boolean[] accepted) { this.rows = rows; this.start = -1; this.accepted = accepted; }
+        BatchChunk(int start, boolean[] accepted) { this.rows = null; this.start = start; this.accepted = accepted; }
     }
 
     private void updateDiagramHighlight() {
@@ -464,7 +855,7 @@ public class MainFrame extends JFrame {
         int idx = currentSim.getIndex();
         if (idx > 0) {
             from = path.get(idx - 1);
-            sym = String.valueOf(currentSim.getInput().charAt(idx - 1));
+            sym = currentSim.getSymbol(idx - 1);
             to = current;
         }
         diagramPanel.setHighlight(current, from, sym, to);
@@ -474,18 +865,11 @@ public class MainFrame extends JFrame {
 
         // Resaltar en la tabla de transiciones
         try {
-            int row = -1;
-            for (int r = 0; r < transitionTable.getRowCount(); r++) {
-                Object val = transitionTable.getValueAt(r, 0);
-                String raw = val == null ? null : val.toString().replace("->", "").replace("*", "");
-                if (Objects.equals(current, raw)) { row = r; break; }
-            }
-            int col = 0; // columna 0 = "Estado"
-            if (sym != null) {
-                for (int c = 1; c < transitionTable.getColumnCount(); c++) {
-                    if (Objects.equals(sym, transitionTable.getColumnName(c))) { col = c; break; }
-                }
-            }
+            int row = transitionTableModel.rowOf(current);
+            if (row >= 0) row = transitionTable.convertRowIndexToView(row);
+            int col = sym != null ? transitionTableModel.columnOf(sym) : -1;
+            if (col < 0) col = 0; // columna 0 = "Estado"
+            else col = transitionTable.convertColumnIndexToView(col);
             if (row >= 0) {
                 transitionTable.changeSelection(row, col, false, false);
             } else {
@@ -496,11 +880,21 @@ public class MainFrame extends JFrame {
 
     private void updateControlsEnabled() {
         boolean hasDfa = currentDfa != null;
-        boolean hasSim = currentSim != null;
+        boolean hasSim = currentSim != null && !isSeeking();
         btnPrev.setEnabled(hasSim && currentSim.canStepBack());
         btnNext.setEnabled(hasSim && currentSim.canStepForward());
         btnReset.setEnabled(hasSim);
         btnAuto.setEnabled(hasSim);
+        scrubber.setEnabled(hasSim);
+        if (hasSim) {
+            syncingScrubber = true;
+            scrubber.setMaximum(currentSim.getLength());
+            scrubber.setValue(currentSim.getIndex());
+            syncingScrubber = false;
+            scrubberLabel.setText(currentSim.getIndex() + " / " + currentSim.getLength());
+        } else if (!isSeeking()) {
+            scrubberLabel.setText("0 / 0");
+        }
     }
 
     private void loadExample(int n) {
@@ -512,11 +906,9 @@ public class MainFrame extends JFrame {
         editor.setText(text);
         try {
             DFAParser.ParseResult res = DFAParser.parseAll(text);
-            setCurrentDfa(res.getDfa());
+            setCurrentDefinition(res, text);
             stringsTableModel.clear();
-            for (String s : res.getStrings()) {
-                stringsTableModel.addString(s);
-            }
+            stringsTableModel.addAll(res.getStrings());
             goToSim();
         } catch (Exception ex) {
             showError("Error en ejemplo: " + ex.getMessage());
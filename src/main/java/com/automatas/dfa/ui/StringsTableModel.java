@@ -1,40 +1,307 @@
 package com.automatas.dfa.ui;
 
+import com.automatas.dfa.engine.Matcher;
+import com.automatas.dfa.parser.CorpusIndex;
+
 import javax.swing.table.AbstractTableModel;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 
+/**
+ * Strings table stored by columns: every input is appended to one {@code char[]}
+ * with its start in {@code offsets}, and the results are one byte per row, so
+ * millions of rows cost a few bytes each instead of two objects. {@link #addAll}
+ * loads any number of strings with a single insert event.
+ * <p>
+ * With {@link #setCorpus} the rows are instead the lines of a corpus file, read
+ * on demand through a {@link CorpusIndex} as the table renders them, and the
+ * results live in a memory-mapped side file ({@link #RESULTS_SUFFIX}, one status
+ * byte per line), so the heap stays small and constant whatever the corpus size.
+ * The side file is stamped with the size and CRC-32 of the corpus and a stamp of
+ * the automaton, so reopening the corpus shows the results of an earlier run of
+ * the same automaton; it is only created (or overwritten) by {@link #prepareResults}.
+ * When it cannot be written, the rows are evaluated as the table shows them.
+ */
 public class StringsTableModel extends AbstractTableModel {
-    public static class Row {
-        public String input;
-        public String result; // Aceptada/Rechazada/Pendiente
-        public Row(String input, String result) { this.input = input; this.result = result; }
+    public static final byte PENDING = 0;
+    public static final byte ACCEPTED = 1;
+    public static final byte REJECTED = 2;
+    private static final String[] RESULT_LABELS = {"Pendiente", "Aceptada", "Rechazada"};
+    /** Appended to the corpus file name to get its results side file. */
+    public static final String RESULTS_SUFFIX = ".results";
+    // cabecera del archivo lateral: magic "AFDR", versión, tamaño y CRC-32 del corpus, sello del autómata
+    private static final int RESULTS_MAGIC = 'A' | 'F' << 8 | 'D' << 16 | 'R' << 24;
+    private static final int RESULTS_VERSION = 1;
+    private static final int RESULTS_HEADER = 24;
+
+    // la cadena i es chars[offsets[i] .. offsets[i + 1])
+    private char[] chars;
+    private int[] offsets;
+    private byte[] status;
+    private int size;
+    // modo corpus: filas leídas del archivo; resultados en el archivo lateral a partir de RESULTS_HEADER,
+    // null si no hay (todas pendientes) o, con onDemand, si no se pudo escribir y se evalúa al mostrar
+    private CorpusIndex corpus;
+    private MappedByteBuffer corpusStatus;
+    private int corpusAutomaton;
+    private Matcher onDemand;
+
+    public StringsTableModel() {
+        reset();
     }
 
-    private final List<Row> rows = new ArrayList<>();
+    private void reset() {
+        // arreglos nuevos (no se reutilizan): las vistas de inputs() anteriores siguen siendo válidas
+        chars = new char[256];
+        offsets = new int[17];
+        status = new byte[16];
+        size = 0;
+    }
 
     public void clear() {
-        rows.clear();
+        closeCorpus();
+        reset();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Shows the lines of {@code corpus} instead of the stored strings, with the
+     * results of an earlier run of the automaton stamped {@code automaton} if
+     * its side file holds them, all {@link #PENDING} otherwise; the side file is
+     * not modified. The model takes ownership of the index and closes it on
+     * {@link #clear} or when another corpus is set.
+     */
+    public void setCorpus(CorpusIndex corpus, int automaton) {
+        closeCorpus();
+        reset();
+        this.corpus = corpus;
+        this.corpusAutomaton = automaton;
+        this.corpusStatus = mapResults(false);
+        fireTableDataChanged();
+    }
+
+    public boolean isCorpus() { return corpus != null; }
+
+    /** The corpus shown, or {@code null} when the table holds its own strings. */
+    public CorpusIndex getCorpus() { return corpus; }
+
+    /**
+     * Readies the corpus for a run of the automaton stamped {@code automaton}.
+     * Results of that automaton are kept, so only the pending rows need
+     * evaluating; otherwise every row becomes pending and the side file is
+     * created or overwritten. If it cannot be written nothing is stored: the
+     * table evaluates the rows it shows with {@code fallback} and this returns
+     * {@code false}.
+     */
+    public boolean prepareResults(int automaton, Matcher fallback) {
+        if (corpus == null) throw new IllegalStateException("No hay un corpus abierto");
+        if (automaton != corpusAutomaton) {
+            flushResults();
+            corpusStatus = null;
+            corpusAutomaton = automaton;
+        }
+        if (corpusStatus == null) corpusStatus = mapResults(true);
+        onDemand = corpusStatus == null ? fallback : null;
         fireTableDataChanged();
+        return onDemand == null;
+    }
+
+    /**
+     * The stored corpus results, one status byte per row, as a read-only view
+     * that stays valid for a background run (which skips the rows already
+     * evaluated); {@code null} if there are none.
+     */
+    public ByteBuffer storedResults() {
+        if (corpusStatus == null) return null;
+        return corpusStatus.slice(RESULTS_HEADER, corpus.getLineCount()).asReadOnlyBuffer();
+    }
+
+    /** Writes the corpus results to disk; no-op without stored results. */
+    public void flushResults() {
+        if (corpusStatus != null) corpusStatus.force();
+    }
+
+    private Path resultsFile() {
+        return Path.of(corpus.getFile() + RESULTS_SUFFIX);
+    }
+
+    /**
+     * Maps the side file if it holds results of this corpus and automaton. With
+     * {@code create}, any other file is replaced by one with every row pending.
+     * Returns {@code null} if there is no usable file or it cannot be written.
+     */
+    private MappedByteBuffer mapResults(boolean create) {
+        long size = RESULTS_HEADER + (long) corpus.getLineCount();
+        try (FileChannel ch = create
+                ? FileChannel.open(resultsFile(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(resultsFile(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // la cabecera se lee con el canal: un archivo mapeado no se puede truncar en Windows
+            ByteBuffer header = ByteBuffer.allocate(RESULTS_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && ch.read(header, header.position()) >= 0) {
+                // leer hasta completar la cabecera o llegar al final
+            }
+            boolean matches = ch.size() == size && !header.hasRemaining()
+                    && header.getInt(0) == RESULTS_MAGIC && header.getInt(4) == RESULTS_VERSION
+                    && header.getLong(8) == corpus.getSize() && header.getInt(16) == corpus.getCrc()
+                    && header.getInt(20) == corpusAutomaton;
+            if (!matches && !create) return null;
+            if (!matches) ch.truncate(0);
+            // el archivo crece con ceros: las filas nuevas quedan pendientes
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (!matches) {
+                map.order(ByteOrder.LITTLE_ENDIAN).putInt(0, RESULTS_MAGIC).putInt(4, RESULTS_VERSION)
+                        .putLong(8, corpus.getSize()).putInt(16, corpus.getCrc()).putInt(20, corpusAutomaton);
+            }
+            return map;
+        } catch (IOException e) {
+            // sin archivo, de solo lectura, disco lleno...
+            return null;
+        }
+    }
+
+    private void closeCorpus() {
+        if (corpus == null) return;
+        flushResults();
+        try {
+            corpus.close();
+        } catch (IOException ignored) {
+            // solo lectura: no hay nada que perder
+        }
+        corpus = null;
+        corpusStatus = null;
+        onDemand = null;
     }
 
     public void addString(String s) {
-        rows.add(new Row(s, "Pendiente"));
-        fireTableRowsInserted(rows.size()-1, rows.size()-1);
+        append(s);
+        fireTableRowsInserted(size - 1, size - 1);
+    }
+
+    /** Appends all strings and fires a single insert event. */
+    public void addAll(Collection<? extends CharSequence> strings) {
+        if (strings.isEmpty()) return;
+        int first = size;
+        long total = offsets[size];
+        for (CharSequence s : strings) total += s.length();
+        ensureCapacity(size + strings.size(), total);
+        for (CharSequence s : strings) append(s);
+        fireTableRowsInserted(first, size - 1);
+    }
+
+    private void append(CharSequence s) {
+        if (corpus != null) throw new IllegalStateException("No se pueden agregar cadenas a un corpus en disco");
+        int start = offsets[size];
+        ensureCapacity(size + 1, (long) start + s.length());
+        if (s instanceof String) {
+            ((String) s).getChars(0, s.length(), chars, start);
+        } else {
+            for (int i = 0; i < s.length(); i++) chars[start + i] = s.charAt(i);
+        }
+        status[size] = PENDING;
+        offsets[++size] = start + s.length();
+    }
+
+    private void ensureCapacity(int rows, long charCount) {
+        if (charCount > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Demasiados caracteres en la tabla de cadenas");
+        if (charCount > chars.length) {
+            chars = Arrays.copyOf(chars, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(charCount, 2L * chars.length)));
+        }
+        if (rows > status.length) {
+            int cap = Math.max(rows, 2 * status.length);
+            status = Arrays.copyOf(status, cap);
+            offsets = Arrays.copyOf(offsets, cap + 1);
+        }
     }
 
     public void setResult(int idx, boolean accepted) {
-        if (idx < 0 || idx >= rows.size()) return;
-        rows.get(idx).result = accepted ? "Aceptada" : "Rechazada";
+        if (idx < 0 || idx >= size()) return;
+        putStatus(idx, accepted ? ACCEPTED : REJECTED);
         fireTableRowsUpdated(idx, idx);
     }
 
-    public Row get(int idx) { return rows.get(idx); }
+    /** Stores a contiguous block of results and fires a single update event. */
+    public void setResults(int start, boolean[] accepted) {
+        int end = Math.min(size(), start + accepted.length);
+        if (start < 0 || start >= end) return;
+        for (int i = start; i < end; i++) {
+            putStatus(i, accepted[i - start] ? ACCEPTED : REJECTED);
+        }
+        fireTableRowsUpdated(start, end - 1);
+    }
+
+    /** Stores scattered results ({@code accepted[i]} for row {@code rows[i]}) with a single update event. */
+    public void setResults(int[] rows, boolean[] accepted) {
+        int min = Integer.MAX_VALUE, max = -1;
+        for (int i = 0; i < rows.length; i++) {
+            int idx = rows[i];
+            if (idx < 0 || idx >= size()) continue;
+            putStatus(idx, accepted[i] ? ACCEPTED : REJECTED);
+            min = Math.min(min, idx);
+            max = Math.max(max, idx);
+        }
+        if (max >= 0) fireTableRowsUpdated(min, max);
+    }
+
+    private void putStatus(int idx, byte value) {
+        if (corpus != null) {
+            // sin archivo lateral (evaluación al mostrar) no hay dónde guardarlo
+            if (corpusStatus != null) corpusStatus.put(RESULTS_HEADER + idx, value);
+        }
+        else status[idx] = value;
+    }
 
-    public int size() { return rows.size(); }
+    public String getInput(int idx) {
+        if (idx < 0 || idx >= size()) throw new IndexOutOfBoundsException(idx);
+        if (corpus != null) return corpus.line(idx);
+        return new String(chars, offsets[idx], offsets[idx + 1] - offsets[idx]);
+    }
+
+    /** {@link #PENDING}, {@link #ACCEPTED} or {@link #REJECTED}. */
+    public byte getStatus(int idx) {
+        if (idx < 0 || idx >= size()) throw new IndexOutOfBoundsException(idx);
+        if (corpus != null) {
+            if (corpusStatus != null) return corpusStatus.get(RESULTS_HEADER + idx);
+            if (onDemand != null) return onDemand.accepts(corpus.line(idx)) ? ACCEPTED : REJECTED;
+            return PENDING;
+        }
+        return status[idx];
+    }
+
+    /**
+     * The current inputs as a read-only list of views over the stored chars,
+     * without copying them. Later {@link #clear} or {@link #addAll} calls do not
+     * change it, so it can be handed to a background evaluation. Not available
+     * for a corpus, which is evaluated by streaming its file.
+     */
+    public List<CharSequence> inputs() {
+        if (corpus != null) throw new IllegalStateException("Un corpus en disco se evalúa leyendo su archivo");
+        char[] c = chars;
+        int[] o = offsets;
+        int n = size;
+        return new AbstractList<CharSequence>() {
+            @Override public CharSequence get(int i) {
+                if (i < 0 || i >= n) throw new IndexOutOfBoundsException(i);
+                return new Slice(c, o[i], o[i + 1] - o[i]);
+            }
+            @Override public int size() { return n; }
+        };
+    }
+
+    public int size() { return corpus != null ? corpus.getLineCount() : size; }
 
     @Override
-    public int getRowCount() { return rows.size(); }
+    public int getRowCount() { return size(); }
 
     @Override
     public int getColumnCount() { return 2; }
@@ -46,7 +313,33 @@ public class StringsTableModel extends AbstractTableModel {
 
     @Override
     public Object getValueAt(int rowIndex, int columnIndex) {
-        Row r = rows.get(rowIndex);
-        return columnIndex == 0 ? r.input : r.result;
+        return columnIndex == 0 ? getInput(rowIndex) : RESULT_LABELS[getStatus(rowIndex)];
+    }
+
+    /** Read-only view of {@code length} chars of the arena. */
+    private static final class Slice implements CharSequence {
+        private final char[] chars;
+        private final int offset;
+        private final int length;
+
+        Slice(char[] chars, int offset, int length) {
+            this.chars = chars;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override public int length() { return length; }
+
+        @Override public char charAt(int index) {
+            if (index < 0 || index >= length) throw new IndexOutOfBoundsException(index);
+            return chars[offset + index];
+        }
+
+        @Override public CharSequence subSequence(int start, int end) {
+            Objects.checkFromToIndex(start, end, length);
+            return new Slice(chars, offset + start, end - start);
+        }
+
+        @Override public String toString() { return new String(chars, offset, length); }
     }
 }
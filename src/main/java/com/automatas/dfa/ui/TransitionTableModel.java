@@ -1,26 +1,49 @@
 package com.automatas.dfa.ui;
 
 
+import com.automatas.dfa.model.CompiledDFA;
 import com.automatas.dfa.model.DFA;
 
 import javax.swing.table.AbstractTableModel;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.Objects;
 
+/**
+ * Tabla de transiciones sobre el {@link CompiledDFA}: la fila es el id del estado y
+ * la columna {@code 1 + id} del símbolo, así que ubicar el estado actual o un símbolo
+ * es una búsqueda en el índice del AFD compilado. Las etiquetas de los estados se
+ * calculan una vez por AFD y cambiar el estado actual solo repinta la fila anterior
+ * y la nueva.
+ */
 public class TransitionTableModel extends AbstractTableModel {
-    private DFA dfa;
-    private List<String> states = new ArrayList<>();
-    private List<String> symbols = new ArrayList<>();
-    // Estado actual resaltado (para mostrar "->" en progreso). Si es null, se mostrará "->" en el estado inicial.
-    private String currentState;
+    private CompiledDFA dfa;
+    // "*" + nombre para estados de aceptación; "->" + etiqueta para destinos que son el estado inicial
+    private String[] rowLabels = new String[0];
+    private String[] cellLabels = new String[0];
+    // Fila con "->": el estado actual si hay simulación; si no, el estado inicial
+    private int currentRow = -1;
 
     public void setDfa(DFA dfa) {
-        this.dfa = dfa;
-        this.states = new ArrayList<>(dfa.getStates());
-        this.symbols = new ArrayList<>(dfa.getSymbols());
-        this.currentState = null; // al cargar un DFA nuevo, por defecto la flecha apunta al estado inicial
+        if (dfa == null) {
+            // sin AFD (p. ej. un AFN demasiado grande para determinizarlo): tabla vacía
+            this.dfa = null;
+            rowLabels = new String[0];
+            cellLabels = new String[0];
+            currentRow = -1;
+            fireTableStructureChanged();
+            return;
+        }
+        this.dfa = dfa.getCompiled();
+        int n = this.dfa.getStateCount();
+        rowLabels = new String[n];
+        cellLabels = new String[n];
+        for (int q = 0; q < n; q++) {
+            String name = this.dfa.getStateName(q);
+            // "*" para estados de aceptación
+            rowLabels[q] = this.dfa.isAccept(q) ? "*" + name : name;
+            // Decorar el destino igual que en la columna Estado, para que se vea como en la imagen
+            cellLabels[q] = q == this.dfa.getStartState() ? "->" + rowLabels[q] : rowLabels[q];
+        }
+        // al cargar un DFA nuevo, por defecto la flecha apunta al estado inicial
+        this.currentRow = this.dfa.getStartState();
         fireTableStructureChanged();
     }
 
@@ -29,58 +52,50 @@ public class TransitionTableModel extends AbstractTableModel {
      * Si se pasa null, la flecha volverá al estado inicial del AFD.
      */
     public void setCurrentState(String state) {
-        this.currentState = state;
-        // Refrescar toda la tabla (o al menos la primera columna) para actualizar las marcas visuales
-        if (getRowCount() > 0) {
-            fireTableRowsUpdated(0, getRowCount() - 1);
-        } else {
-            fireTableDataChanged();
-        }
+        if (dfa == null) return;
+        int row = state != null ? rowOf(state) : dfa.getStartState();
+        if (row < 0) row = dfa.getStartState();
+        int old = currentRow;
+        if (row == old) return;
+        currentRow = row;
+        // Refrescar solo la fila anterior y la nueva
+        if (old >= 0) fireTableRowsUpdated(old, old);
+        fireTableRowsUpdated(row, row);
+    }
+
+    /** Fila del estado, o -1 si no pertenece al AFD. */
+    public int rowOf(String state) {
+        return dfa == null ? -1 : dfa.stateId(state);
+    }
+
+    /** Columna del símbolo, o -1 si no pertenece al alfabeto. */
+    public int columnOf(String symbol) {
+        int a = dfa == null ? CompiledDFA.DEAD : dfa.symbolId(symbol);
+        return a == CompiledDFA.DEAD ? -1 : 1 + a;
     }
 
     @Override
     public int getRowCount() {
-        return dfa == null ? 0 : states.size();
+        return dfa == null ? 0 : dfa.getStateCount();
     }
 
     @Override
     public int getColumnCount() {
-        return dfa == null ? 0 : 1 + symbols.size();
+        return dfa == null ? 0 : 1 + dfa.getSymbolCount();
     }
 
     @Override
     public String getColumnName(int column) {
         if (column == 0) return "Estado";
-        return symbols.get(column - 1);
+        return dfa.getSymbolName(column - 1);
     }
 
     @Override
     public Object getValueAt(int rowIndex, int columnIndex) {
-        String state = states.get(rowIndex);
         if (columnIndex == 0) {
-            StringBuilder sb = new StringBuilder();
-            // "->" para el estado actual si hay simulación; si no hay, para el estado inicial
-            if (dfa != null) {
-                if (currentState != null) {
-                    if (Objects.equals(currentState, state)) sb.append("->");
-                } else {
-                    if (Objects.equals(dfa.getStartState(), state)) sb.append("->");
-                }
-                // "*" para estados de aceptación
-                if (dfa.getAcceptStates().contains(state)) sb.append("*");
-            }
-            sb.append(state);
-            return sb.toString();
+            return rowIndex == currentRow ? "->" + rowLabels[rowIndex] : rowLabels[rowIndex];
         }
-        String sym = symbols.get(columnIndex - 1);
-        Map<String, String> map = dfa.getTransitions().get(state);
-        String to = map != null ? map.get(sym) : null;
-        if (to == null) return "—";
-        // Decorar el destino igual que en la columna Estado, para que se vea como en la imagen
-        StringBuilder sb = new StringBuilder();
-        if (Objects.equals(dfa.getStartState(), to)) sb.append("->");
-        if (dfa.getAcceptStates().contains(to)) sb.append("*");
-        sb.append(to);
-        return sb.toString();
+        int to = dfa.step(rowIndex, columnIndex - 1);
+        return to == CompiledDFA.DEAD ? "—" : cellLabels[to];
     }
 }
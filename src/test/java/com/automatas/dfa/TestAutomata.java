@@ -0,0 +1,120 @@
+package com.automatas.dfa;
+
+import com.automatas.dfa.model.CompiledDFA;
+import com.automatas.dfa.model.DFA;
+import com.automatas.dfa.model.NFA;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Seeded random automata and inputs shared by the engine tests, plus a
+ * reference run over the transition maps that does not use {@link CompiledDFA}.
+ */
+public final class TestAutomata {
+    private TestAutomata() {
+    }
+
+    /** Random DFA over the given symbols; about {@code missing} of the transitions are left undefined. */
+    public static DFA random(Random r, int states, List<String> symbols, double missing) {
+        List<String> names = new ArrayList<>(states);
+        for (int q = 0; q < states; q++) names.add("q" + q);
+        int k = symbols.size();
+        int[] table = new int[states * k];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = r.nextDouble() < missing ? CompiledDFA.DEAD : r.nextInt(states);
+        }
+        BitSet accept = new BitSet(states);
+        for (int q = 0; q < states; q++) if (r.nextInt(3) == 0) accept.set(q);
+        return new DFA(symbols, names, 0, accept, table);
+    }
+
+    /** Random NFA over the given symbols with {@code edges} edges, about a fifth of them ε. */
+    public static NFA randomNfa(Random r, int states, List<String> symbols, int edges) {
+        List<String> names = new ArrayList<>(states);
+        for (int q = 0; q < states; q++) names.add("q" + q);
+        int[] from = new int[edges];
+        int[] symbol = new int[edges];
+        int[] to = new int[edges];
+        for (int e = 0; e < edges; e++) {
+            from[e] = r.nextInt(states);
+            symbol[e] = r.nextInt(5) == 0 ? NFA.EPSILON : r.nextInt(symbols.size());
+            to[e] = r.nextInt(states);
+        }
+        BitSet accept = new BitSet(states);
+        for (int q = 0; q < states; q++) if (r.nextInt(3) == 0) accept.set(q);
+        return new NFA(symbols, names, 0, accept, from, symbol, to);
+    }
+
+    public static List<String> chars(String alphabet) {
+        List<String> symbols = new ArrayList<>();
+        alphabet.codePoints().forEach(cp -> symbols.add(new String(Character.toChars(cp))));
+        return symbols;
+    }
+
+    /** Random concatenation of {@code pieces}, at most {@code maxPieces} long. */
+    public static String input(Random r, List<String> pieces, int maxPieces) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = r.nextInt(maxPieces + 1); i > 0; i--) sb.append(pieces.get(r.nextInt(pieces.size())));
+        return sb.toString();
+    }
+
+    /** Accept check over already split symbols using only the transition maps. */
+    public static boolean reference(DFA dfa, List<String> symbols) {
+        Map<String, Map<String, String>> delta = dfa.getTransitions();
+        String s = dfa.getStartState();
+        for (String a : symbols) {
+            Map<String, String> row = delta.get(s);
+            s = row == null ? null : row.get(a);
+            if (s == null) return false;
+        }
+        return dfa.getAcceptStates().contains(s);
+    }
+
+    /** Accept check of an NFA over already split symbols, by sets of states. */
+    public static boolean reference(NFA nfa, List<String> symbols) {
+        BitSet current = closure(nfa, single(nfa.getStartState()));
+        for (String a : symbols) {
+            int sym = nfa.getSymbols().indexOf(a);
+            BitSet next = new BitSet();
+            for (int q = current.nextSetBit(0); q >= 0; q = current.nextSetBit(q + 1)) {
+                for (int e = nfa.edgeStart(q); e < nfa.edgeStart(q + 1); e++) {
+                    if (sym >= 0 && nfa.edgeSymbol(e) == sym) next.set(nfa.edgeTarget(e));
+                }
+            }
+            current = closure(nfa, next);
+        }
+        for (int q = current.nextSetBit(0); q >= 0; q = current.nextSetBit(q + 1)) if (nfa.isAccept(q)) return true;
+        return false;
+    }
+
+    private static BitSet single(int q) {
+        BitSet b = new BitSet();
+        b.set(q);
+        return b;
+    }
+
+    private static BitSet closure(NFA nfa, BitSet set) {
+        BitSet done = (BitSet) set.clone();
+        List<Integer> stack = new ArrayList<>();
+        set.stream().forEach(stack::add);
+        while (!stack.isEmpty()) {
+            int q = stack.remove(stack.size() - 1);
+            for (int e = nfa.edgeStart(q); e < nfa.edgeStart(q + 1); e++) {
+                if (nfa.edgeSymbol(e) == NFA.EPSILON && !done.get(nfa.edgeTarget(e))) {
+                    done.set(nfa.edgeTarget(e));
+                    stack.add(nfa.edgeTarget(e));
+                }
+            }
+        }
+        return done;
+    }
+
+    /** {@link #reference(DFA, List)} reading one code point per symbol. */
+    public static boolean reference(DFA dfa, String input) {
+        return reference(dfa, chars(input));
+    }
+}
@@ -0,0 +1,59 @@
+package com.automatas.dfa.engine;
+
+import com.automatas.dfa.TestAutomata;
+import com.automatas.dfa.model.DFA;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DFAMinimizerTest {
+    private static final List<String> SYMBOLS = TestAutomata.chars("abc");
+    // 'x' no pertenece al alfabeto
+    private static final List<String> PIECES = TestAutomata.chars("abcx");
+
+    @Test
+    void minimizedAutomatonAcceptsTheSameLanguage() {
+        Random r = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            DFA dfa = TestAutomata.random(r, 1 + r.nextInt(12), SYMBOLS, 0.2);
+            DFA min = DFAMinimizer.minimize(dfa).getDfa();
+            assertTrue(min.getStates().size() <= dfa.getStates().size());
+            for (int i = 0; i < 200; i++) {
+                String in = TestAutomata.input(r, PIECES, 10);
+                assertEquals(TestAutomata.reference(dfa, in), min.accepts(in), in);
+                assertEquals(dfa.accepts(in), min.accepts(in));
+            }
+        }
+    }
+
+    @Test
+    void minimizationIsIdempotent() {
+        Random r = new Random(11);
+        for (int round = 0; round < 100; round++) {
+            DFA min = DFAMinimizer.minimize(TestAutomata.random(r, 2 + r.nextInt(15), SYMBOLS, 0.1)).getDfa();
+            assertEquals(min.getStates().size(), DFAMinimizer.minimize(min).getDfa().getStates().size());
+        }
+    }
+
+    @Test
+    void equivalentStatesAreMerged() {
+        // q1 y q2 son equivalentes: ambos aceptan y con a pasan el uno al otro
+        DFA dfa = new DFA(List.of("a"), List.of("q0", "q1", "q2"), 0, bits(1, 2), new int[]{1, 2, 1});
+        DFA min = DFAMinimizer.minimize(dfa).getDfa();
+        assertEquals(2, min.getStates().size());
+        assertTrue(min.accepts("aaa"));
+        assertFalse(min.accepts(""));
+    }
+
+    private static BitSet bits(int... set) {
+        BitSet b = new BitSet();
+        for (int i : set) b.set(i);
+        return b;
+    }
+}
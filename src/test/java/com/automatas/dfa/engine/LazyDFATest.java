@@ -0,0 +1,103 @@
+package com.automatas.dfa.engine;
+
+import com.automatas.dfa.TestAutomata;
+import com.automatas.dfa.model.DFA;
+import com.automatas.dfa.model.NFA;
+import com.automatas.dfa.parser.DFAParser;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LazyDFATest {
+
+    @Test
+    void lazyAndFullDeterminizationAgreeInEveryAlphabet() {
+        Random r = new Random(59);
+        List<List<String>> alphabets = List.of(
+                TestAutomata.chars("ab"),
+                TestAutomata.chars("añ中"),
+                TestAutomata.chars("a😀"),
+                List.of("a", "ab", "abc"),
+                List.of("if", "then", "😀😀", "x"));
+        for (List<String> symbols : alphabets) {
+            List<String> pieces = new ArrayList<>(symbols);
+            pieces.add(",");
+            pieces.add("z");
+            for (int round = 0; round < 60; round++) {
+                int states = 1 + r.nextInt(8);
+                NFA nfa = TestAutomata.randomNfa(r, states, symbols, r.nextInt(4 * states));
+                DFA full = new LazyDFA(nfa).toDFA();
+                // caché mínima: fuerza vaciados a mitad de cadena
+                LazyDFA lazy = new LazyDFA(nfa, 3);
+                boolean tokenized = full.getCompiled().getTokenizer() != null;
+                for (int i = 0; i < 30; i++) {
+                    List<String> read = new ArrayList<>();
+                    StringBuilder sb = new StringBuilder();
+                    for (int p = r.nextInt(10); p > 0; p--) {
+                        String piece = pieces.get(r.nextInt(pieces.size()));
+                        if (tokenized && !piece.equals(",") && sb.length() > 0 && sb.charAt(sb.length() - 1) != ',') sb.append(',');
+                        sb.append(piece);
+                        if (!piece.equals(",")) read.add(piece);
+                    }
+                    String in = sb.toString();
+                    boolean expected = TestAutomata.reference(nfa, read);
+                    assertEquals(expected, full.accepts(in), in);
+                    assertEquals(expected, lazy.accepts(in), in);
+                    byte[] utf8 = in.getBytes(StandardCharsets.UTF_8);
+                    assertEquals(expected, lazy.accepts(ByteBuffer.wrap(utf8), 0, utf8.length), in);
+                }
+            }
+        }
+    }
+
+    @Test
+    void nfaDefinitionWithMultiCharSymbolsIsAcceptedByBothPaths() {
+        // el caso del modo por lotes: AFN de texto, que usa LazyDFA en lugar del AFD completo
+        NFA nfa = DFAParser.parseAll("type: nfa\nsymbols: a,ab,abc,😀\nstates: p,q,r\nstart: p\nfinals: r\n"
+                + "transitions:\np,a->p\np,ab->p\np,abc->r\np,ε->q\nq,😀->r\n").getNfa();
+        DFA full = new LazyDFA(nfa).toDFA();
+        LazyDFA lazy = new LazyDFA(nfa);
+        for (String in : List.of("abc", "ab,abc", "a,ab,abc", "aabc", "ab", "a,b,c", "abcabc", "😀", "a😀", "")) {
+            assertEquals(full.accepts(in), lazy.accepts(in), in);
+            byte[] utf8 = in.getBytes(StandardCharsets.UTF_8);
+            assertEquals(full.accepts(in), lazy.accepts(ByteBuffer.wrap(utf8), 0, utf8.length), in);
+        }
+        assertTrue(lazy.accepts("a,ab,abc"));
+        assertTrue(lazy.accepts("aabc"));
+        assertTrue(lazy.accepts("😀"));
+    }
+
+    @Test
+    void automataPastTheLimitAreStillEvaluatedLazily() {
+        // "la décima desde el final es una 'a'": 11 estados, 2^10 al determinizarlo
+        int n = 10;
+        StringBuilder def = new StringBuilder("type: nfa\nsymbols: a,b\nstates: q0");
+        for (int i = 1; i <= n; i++) def.append(",q").append(i);
+        def.append("\nstart: q0\nfinals: q").append(n).append("\ntransitions:\nq0,a->q0\nq0,b->q0\nq0,a->q1\n");
+        for (int i = 1; i < n; i++) def.append('q').append(i).append(",a->q").append(i + 1)
+                .append("\nq").append(i).append(",b->q").append(i + 1).append('\n');
+        NFA nfa = DFAParser.parseAll(def.toString()).getNfa();
+        assertThrows(IllegalArgumentException.class, () -> new LazyDFA(nfa).toDFA(500));
+
+        Matcher m = LazyDFA.matcher(nfa);
+        Random r = new Random(61);
+        List<String> inputs = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) inputs.add(TestAutomata.input(r, TestAutomata.chars("ab"), 40));
+        boolean[] results = new boolean[inputs.size()];
+        new BatchEvaluator().evaluate(m, inputs, (start, accepted) ->
+                System.arraycopy(accepted, 0, results, start, accepted.length), () -> false);
+        for (int i = 0; i < inputs.size(); i++) {
+            String in = inputs.get(i);
+            boolean expected = in.length() >= n && in.charAt(in.length() - n) == 'a';
+            assertEquals(expected, results[i], in);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.automatas.dfa.engine;
+
+import com.automatas.dfa.TestAutomata;
+import com.automatas.dfa.model.DFA;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MatcherCompilerTest {
+    private static final List<String> SYMBOLS = TestAutomata.chars("abñ中");
+    // 'x' no pertenece al alfabeto
+    private static final List<String> PIECES = TestAutomata.chars("abñ中x");
+
+    @Test
+    void generatedMatcherAgreesWithTheTable() {
+        Random r = new Random(19);
+        for (int round = 0; round < 200; round++) {
+            DFA dfa = TestAutomata.random(r, 1 + r.nextInt(15), SYMBOLS, round % 2 == 0 ? 0 : 0.2);
+            Matcher m = MatcherCompiler.generate(dfa);
+            assertNotNull(m);
+            for (int i = 0; i < 100; i++) {
+                String in = TestAutomata.input(r, PIECES, 20);
+                assertEquals(dfa.accepts(in), m.accepts(in), in);
+                assertEquals(TestAutomata.reference(dfa, in), m.accepts(in), in);
+            }
+        }
+    }
+
+    @Test
+    void largeAutomataFallBackToTheInterpreter() {
+        Random r = new Random(23);
+        DFA dfa = TestAutomata.random(r, 5000, SYMBOLS, 0);
+        assertNull(MatcherCompiler.generate(dfa));
+        Matcher m = MatcherCompiler.compile(dfa);
+        for (int i = 0; i < 100; i++) {
+            String in = TestAutomata.input(r, PIECES, 50);
+            assertEquals(TestAutomata.reference(dfa, in), m.accepts(in), in);
+        }
+    }
+
+    @Test
+    void supplementaryAlphabetsAreNotGenerated() {
+        List<String> symbols = TestAutomata.chars("a😀");
+        DFA dfa = TestAutomata.random(new Random(29), 4, symbols, 0);
+        assertNull(MatcherCompiler.generate(dfa));
+        Matcher m = MatcherCompiler.compile(dfa);
+        Random r = new Random(31);
+        for (int i = 0; i < 100; i++) {
+            String in = TestAutomata.input(r, symbols, 10);
+            assertEquals(TestAutomata.reference(dfa, in), m.accepts(in), in);
+        }
+    }
+}
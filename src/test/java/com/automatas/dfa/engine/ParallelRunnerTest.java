@@ -0,0 +1,77 @@
+package com.automatas.dfa.engine;
+
+import com.automatas.dfa.TestAutomata;
+import com.automatas.dfa.model.CompiledDFA;
+import com.automatas.dfa.model.DFA;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ParallelRunnerTest {
+    // símbolos de 1, 2 y 3 bytes en UTF-8, para que los cortes caigan dentro de secuencias
+    private static final List<String> SYMBOLS = TestAutomata.chars("abñ中");
+    private static final int MIN_CHUNK = 7;
+
+    private static ForkJoinPool pool;
+    private static ParallelRunner runner;
+
+    @BeforeAll
+    static void createPool() {
+        // varios bloques aunque la máquina tenga un solo núcleo
+        pool = new ForkJoinPool(4);
+        runner = new ParallelRunner(pool, MIN_CHUNK);
+    }
+
+    @AfterAll
+    static void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    void chunkedRunMatchesSequentialRun() {
+        Random r = new Random(3);
+        for (int round = 0; round < 300; round++) {
+            DFA dfa = TestAutomata.random(r, 1 + r.nextInt(10), SYMBOLS, round % 2 == 0 ? 0 : 0.05);
+            CompiledDFA c = dfa.getCompiled();
+            String in = TestAutomata.input(r, SYMBOLS, 400);
+            int expected = c.runFrom(c.getStartState(), in, 0, in.length());
+            assertEquals(expected, runner.run(c, in), in);
+            assertEquals(TestAutomata.reference(dfa, in), runner.accepts(dfa, in), in);
+        }
+    }
+
+    @Test
+    void utf8ChunksNeverSplitASequence() {
+        Random r = new Random(5);
+        for (int round = 0; round < 300; round++) {
+            DFA dfa = TestAutomata.random(r, 1 + r.nextInt(10), SYMBOLS, 0);
+            CompiledDFA c = dfa.getCompiled();
+            String in = TestAutomata.input(r, SYMBOLS, 400);
+            byte[] utf8 = in.getBytes(StandardCharsets.UTF_8);
+            // la entrada empieza en un desplazamiento distinto de cero dentro del búfer
+            byte[] padded = new byte[utf8.length + 5];
+            System.arraycopy(utf8, 0, padded, 3, utf8.length);
+            ByteBuffer buf = ByteBuffer.wrap(padded);
+            int expected = c.runFrom(c.getStartState(), in, 0, in.length());
+            assertEquals(expected, runner.run(c, buf, 3, utf8.length), in);
+            assertEquals(TestAutomata.reference(dfa, in), runner.accepts(dfa, buf, 3, utf8.length), in);
+        }
+    }
+
+    @Test
+    void symbolsOutsideTheAlphabetKillEveryLane() {
+        DFA dfa = TestAutomata.random(new Random(1), 5, SYMBOLS, 0);
+        String in = "ab".repeat(100) + "x" + "ab".repeat(100);
+        assertEquals(CompiledDFA.DEAD, runner.run(dfa.getCompiled(), in));
+        byte[] utf8 = in.getBytes(StandardCharsets.UTF_8);
+        assertEquals(CompiledDFA.DEAD, runner.run(dfa.getCompiled(), ByteBuffer.wrap(utf8), 0, utf8.length));
+    }
+}
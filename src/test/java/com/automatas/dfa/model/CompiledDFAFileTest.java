@@ -0,0 +1,125 @@
+package com.automatas.dfa.model;
+
+import com.automatas.dfa.TestAutomata;
+import com.automatas.dfa.parser.DFAParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompiledDFAFileTest {
+    // incluye un símbolo fuera del plano básico para que se guarden rangos por encima de 0xFFFF
+    private static final List<String> SYMBOLS = TestAutomata.chars("ab0ñ中😀");
+    private static final List<String> PIECES = TestAutomata.chars("ab0ñ中😀x");
+    private static final byte[] SOURCE = "fuente".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void loadedAutomatonRunsLikeTheWrittenOne() throws IOException {
+        Random r = new Random(17);
+        Path file = dir.resolve("afd.afdb");
+        for (int round = 0; round < 50; round++) {
+            DFA dfa = TestAutomata.random(r, 1 + r.nextInt(20), SYMBOLS, 0.1);
+            CompiledDFAFile.write(dfa.getCompiled(), file, SOURCE);
+            DFA loaded = new DFA(CompiledDFAFile.load(file));
+            assertEquals(dfa.getStates(), loaded.getStates());
+            assertEquals(dfa.getSymbols(), loaded.getSymbols());
+            assertEquals(dfa.getTransitions(), loaded.getTransitions());
+            for (int i = 0; i < 100; i++) {
+                String in = TestAutomata.input(r, PIECES, 12);
+                assertEquals(TestAutomata.reference(dfa, in), loaded.accepts(in), in);
+            }
+        }
+    }
+
+    @Test
+    void headerRecordsTheSourceText() throws IOException {
+        Path file = dir.resolve("afd.afdb");
+        CompiledDFAFile.write(TestAutomata.random(new Random(1), 3, SYMBOLS, 0).getCompiled(), file, SOURCE);
+        assertTrue(CompiledDFAFile.isCompiledFrom(file, SOURCE));
+        assertFalse(CompiledDFAFile.isCompiledFrom(file, "fuenta".getBytes(StandardCharsets.UTF_8)));
+        assertFalse(CompiledDFAFile.isCompiledFrom(file, "fuente ".getBytes(StandardCharsets.UTF_8)));
+        assertFalse(CompiledDFAFile.isCompiledFrom(dir.resolve("no-existe.afdb"), SOURCE));
+    }
+
+    @Test
+    void truncatedFileIsRejected() throws IOException {
+        Path file = dir.resolve("afd.afdb");
+        CompiledDFAFile.write(TestAutomata.random(new Random(2), 4, SYMBOLS, 0).getCompiled(), file, SOURCE);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+        assertThrows(IOException.class, () -> CompiledDFAFile.load(file));
+    }
+
+    @Test
+    void fileCanBeRewrittenWhileAPreviousVersionIsLoaded() throws IOException {
+        Random r = new Random(3);
+        Path file = dir.resolve("afd.afdb");
+        DFA first = TestAutomata.random(r, 5, SYMBOLS, 0);
+        DFA second = TestAutomata.random(r, 7, SYMBOLS, 0);
+        CompiledDFAFile.write(first.getCompiled(), file, SOURCE);
+        DFA loaded = new DFA(CompiledDFAFile.load(file));
+        CompiledDFAFile.write(second.getCompiled(), file, SOURCE);
+        DFA reloaded = new DFA(CompiledDFAFile.load(file));
+        assertFalse(Files.exists(dir.resolve("afd.afdb.tmp")));
+        assertEquals(second.getTransitions(), reloaded.getTransitions());
+        // la versión anterior, aún cargada, sigue funcionando
+        for (int i = 0; i < 100; i++) {
+            String in = TestAutomata.input(r, PIECES, 12);
+            assertEquals(TestAutomata.reference(first, in), loaded.accepts(in), in);
+            assertEquals(TestAutomata.reference(second, in), reloaded.accepts(in), in);
+        }
+    }
+
+    @Test
+    void corruptTableEntryIsRejectedAndTheTextIsReparsed() throws IOException {
+        File text = dir.resolve("afd.txt").toFile();
+        Files.writeString(text.toPath(), "symbols: a,b\nstates: q0,q1\nstart: q0\nfinals: q1\ntransitions:\nq0,a->q1\nq1,b->q0\n");
+        assertTrue(DFAParser.loadFile(text).accepts("a"));
+        Path binary = CompiledDFAFile.pathFor(text.toPath());
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(binary)).order(ByteOrder.LITTLE_ENDIAN);
+        // primera celda de la tabla apuntando a un estado que no existe
+        bytes.putInt((int) bytes.getLong(48), bytes.getInt(8) + 5);
+        Files.write(binary, bytes.array());
+        assertThrows(IOException.class, () -> CompiledDFAFile.load(binary));
+        DFA reloaded = DFAParser.loadFile(text);
+        assertTrue(reloaded.accepts("a"));
+        assertFalse(reloaded.accepts("b"));
+    }
+
+    @Test
+    void editedDefinitionIsReparsedEvenIfOlderThanTheBinary() throws IOException {
+        File text = dir.resolve("afd.txt").toFile();
+        String base = "symbols: a,b\nstates: q0,q1\nstart: q0\nfinals: q1\ntransitions:\nq0,a->q1\nq1,b->q0\n";
+        Files.writeString(text.toPath(), base);
+        assertTrue(DFAParser.loadFile(text).accepts("a"));
+        assertTrue(DFAParser.hasFreshCompiled(text));
+
+        // misma longitud y fecha anterior a la del binario: solo el CRC delata el cambio
+        Path binary = CompiledDFAFile.pathFor(text.toPath());
+        Files.writeString(text.toPath(), base.replace("q0,a->q1", "q0,b->q1"));
+        Files.setLastModifiedTime(text.toPath(), FileTime.fromMillis(Files.getLastModifiedTime(binary).toMillis() - 60_000));
+        assertFalse(DFAParser.hasFreshCompiled(text));
+        DFA reloaded = DFAParser.loadFile(text);
+        assertFalse(reloaded.accepts("a"));
+        assertTrue(reloaded.accepts("b"));
+        assertTrue(DFAParser.hasFreshCompiled(text));
+    }
+}
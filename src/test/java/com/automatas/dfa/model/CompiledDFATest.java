@@ -0,0 +1,148 @@
+package com.automatas.dfa.model;
+
+import com.automatas.dfa.TestAutomata;
+import com.automatas.dfa.engine.Matcher;
+import com.automatas.dfa.engine.MatcherCompiler;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompiledDFATest {
+
+    @Test
+    void commasSeparateSymbolsInEveryAlphabet() {
+        Random r = new Random(37);
+        List<List<String>> alphabets = List.of(
+                TestAutomata.chars("abc"),
+                TestAutomata.chars("añ中"),
+                TestAutomata.chars("a😀"),
+                List.of("a", "ab", "abc"));
+        for (List<String> symbols : alphabets) {
+            List<String> pieces = new ArrayList<>(symbols);
+            pieces.add(",");
+            for (int round = 0; round < 100; round++) {
+                DFA dfa = TestAutomata.random(r, 1 + r.nextInt(8), symbols, 0.1);
+                Matcher generated = MatcherCompiler.compile(dfa);
+                boolean tokenized = dfa.getCompiled().getTokenizer() != null;
+                for (int i = 0; i < 20; i++) {
+                    List<String> read = new ArrayList<>();
+                    StringBuilder sb = new StringBuilder();
+                    for (int p = r.nextInt(12); p > 0; p--) {
+                        String piece = pieces.get(r.nextInt(pieces.size()));
+                        // sin coma entre símbolos de varios caracteres, "a"+"b" se leería como "ab"
+                        if (tokenized && !piece.equals(",") && sb.length() > 0 && sb.charAt(sb.length() - 1) != ',') sb.append(',');
+                        sb.append(piece);
+                        if (!piece.equals(",")) read.add(piece);
+                    }
+                    String in = sb.toString();
+                    boolean expected = TestAutomata.reference(dfa, read);
+                    assertEquals(expected, dfa.accepts(in), in);
+                    assertEquals(expected, dfa.accepts(in.toCharArray(), 0, in.length()), in);
+                    byte[] utf8 = in.getBytes(StandardCharsets.UTF_8);
+                    assertEquals(expected, dfa.accepts(utf8, 0, utf8.length), in);
+                    assertEquals(expected, dfa.accepts(ByteBuffer.wrap(utf8), 0, utf8.length), in);
+                    assertEquals(expected, generated.accepts(in), in);
+
+                    DFASimulation sim = new DFASimulation(dfa, in);
+                    assertEquals(read.size(), sim.getLength(), in);
+                    sim.seek(sim.getLength());
+                    assertEquals(expected, sim.isAccepted(), in);
+                }
+            }
+        }
+    }
+
+    @Test
+    void commaDeclaredAsSymbolIsReadAsThatSymbol() {
+        // q0 --a--> q1 --,--> q0; acepta tras una 'a'
+        BitSet accept = new BitSet();
+        accept.set(1);
+        DFA dfa = new DFA(List.of("a", ","), List.of("q0", "q1"), 0, accept,
+                new int[]{1, CompiledDFA.DEAD, CompiledDFA.DEAD, 0});
+        assertFalse(dfa.getCompiled().isSeparator(','));
+        assertTrue(dfa.accepts("a,a"));
+        assertFalse(dfa.accepts("aa"));
+        assertFalse(dfa.accepts("a,"));
+        DFASimulation sim = new DFASimulation(dfa, "a,a");
+        assertEquals(3, sim.getLength());
+        assertEquals(",", sim.getSymbol(1));
+    }
+
+    @Test
+    void separatorDoesNotChangeTheStateOrTheFate() {
+        // q0 acepta y absorbe: solo los símbolos del alfabeto deciden, las comas no cuentan
+        BitSet accept = new BitSet();
+        accept.set(0);
+        DFA dfa = new DFA(List.of("a"), List.of("q0"), 0, accept, new int[]{0});
+        CompiledDFA c = dfa.getCompiled();
+        assertTrue(c.isSeparator(','));
+        assertEquals(0, c.step(0, ','));
+        assertTrue(c.isAcceptAbsorbing(0));
+        assertTrue(dfa.accepts(",a,,a,"));
+        assertFalse(dfa.accepts("a,b"));
+    }
+
+    @Test
+    void malformedUtf8IsRejectedLikeTheDecodedString() {
+        // acepta cualquier cadena del alfabeto: solo la decodificación decide
+        BitSet accept = new BitSet();
+        accept.set(0);
+        DFA dfa = new DFA(TestAutomata.chars("/A中\uD7FF😀"), List.of("q0"), 0, accept, new int[]{0, 0, 0, 0, 0});
+        int[][] sequences = {
+                {0x2F}, {0xC0, 0xAF}, {0xC1, 0x81}, {0xE0, 0x80, 0xAF}, {0xF0, 0x80, 0x80, 0xAF},
+                {0xED, 0x9F, 0xBF}, {0xED, 0xA0, 0x80}, {0xED, 0xBF, 0xBF},
+                {0xF0, 0x9F, 0x98, 0x80}, {0xF4, 0x90, 0x80, 0x80}, {0xF5, 0x80, 0x80, 0x80}, {0xF7, 0xBF, 0xBF, 0xBF},
+                {0xE4, 0xB8, 0xAD}, {0xC2}, {0x80}};
+        for (int[] seq : sequences) {
+            byte[] bytes = new byte[seq.length + 2];
+            bytes[0] = 'A';
+            for (int i = 0; i < seq.length; i++) bytes[1 + i] = (byte) seq[i];
+            bytes[bytes.length - 1] = 'A';
+            String decoded = new String(bytes, StandardCharsets.UTF_8);
+            String hex = HexFormat.ofDelimiter(" ").formatHex(bytes);
+            assertEquals(dfa.accepts(decoded), dfa.accepts(bytes, 0, bytes.length), hex);
+            assertEquals(dfa.accepts(decoded), dfa.accepts(ByteBuffer.wrap(bytes), 0, bytes.length), hex);
+        }
+        assertTrue(dfa.accepts(new byte[]{'A', (byte) 0xED, (byte) 0x9F, (byte) 0xBF}, 0, 4));
+        assertFalse(dfa.accepts(new byte[]{(byte) 0xC0, (byte) 0xAF}, 0, 2));
+    }
+
+    @Test
+    void codePointsAreReadAlikeByEveryEntryPoint() {
+        Random r = new Random(37);
+        List<List<String>> alphabets = List.of(
+                TestAutomata.chars("abc"),
+                TestAutomata.chars("añ中"),
+                TestAutomata.chars("a😀"),
+                TestAutomata.chars("ñ😀𝄞"));
+        for (List<String> symbols : alphabets) {
+            List<String> pieces = new ArrayList<>(symbols);
+            // fuera del alfabeto: uno de cada longitud en UTF-8
+            pieces.addAll(TestAutomata.chars("xé北🙂"));
+            for (int round = 0; round < 100; round++) {
+                DFA dfa = TestAutomata.random(r, 1 + r.nextInt(8), symbols, 0.1);
+                Matcher matcher = MatcherCompiler.compile(dfa);
+                for (int i = 0; i < 20; i++) {
+                    String in = TestAutomata.input(r, pieces, 12);
+                    boolean expected = TestAutomata.reference(dfa, in);
+                    assertEquals(expected, dfa.accepts(in), in);
+                    assertEquals(expected, dfa.accepts(in.toCharArray(), 0, in.length()), in);
+                    byte[] utf8 = in.getBytes(StandardCharsets.UTF_8);
+                    assertEquals(expected, dfa.accepts(utf8, 0, utf8.length), in);
+                    assertEquals(expected, dfa.accepts(ByteBuffer.wrap(utf8), 0, utf8.length), in);
+                    assertEquals(expected, matcher.accepts(in), in);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.automatas.dfa.model;
+
+import com.automatas.dfa.TestAutomata;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DFASimulationTest {
+
+    @Test
+    void steppingMatchesTheTableInEveryAlphabet() {
+        Random r = new Random(41);
+        List<List<String>> alphabets = List.of(
+                TestAutomata.chars("ab"),
+                TestAutomata.chars("a😀"),
+                List.of("a", "ab", "abc"));
+        for (List<String> symbols : alphabets) {
+            List<String> pieces = new ArrayList<>(symbols);
+            pieces.add(",");
+            pieces.add("x");
+            for (int round = 0; round < 20; round++) {
+                DFA dfa = TestAutomata.random(r, 1 + r.nextInt(6), symbols, 0.02);
+                CompiledDFA c = dfa.getCompiled();
+                // suficientemente larga para tener varios checkpoints
+                String in = TestAutomata.input(r, pieces, 3000);
+                DFASimulation sim = new DFASimulation(dfa, in);
+
+                List<Integer> states = new ArrayList<>();
+                StringBuilder read = new StringBuilder();
+                states.add(c.getStartState());
+                while (sim.canStepForward()) {
+                    read.append(sim.getSymbol(sim.getIndex()));
+                    sim.stepForward();
+                    states.add(c.stateId(sim.getPathStates().get(sim.getIndex())));
+                }
+                assertEquals(sim.getLength(), sim.getIndex());
+                assertEquals(dfa.accepts(in), sim.isAccepted(), in);
+                // los símbolos leídos reconstruyen la entrada sin separadores
+                assertEquals(in.replace(",", ""), read.toString());
+
+                // hacia atrás, paso a paso, se recorren los mismos estados
+                for (int i = sim.getLength(); i > 0; i--) {
+                    assertTrue(sim.stepBack());
+                    assertEquals(c.getStateName(states.get(i - 1)), sim.getPathStates().get(i - 1));
+                }
+                assertFalse(sim.canStepBack());
+
+                // saltos arbitrarios, hacia delante y hacia atrás
+                for (int k = 0; k < 30; k++) {
+                    int target = r.nextInt(sim.getLength() + 1);
+                    sim.seek(target);
+                    assertEquals(target, sim.getIndex());
+                    assertEquals(c.getStateName(states.get(target)), sim.getPathStates().get(target));
+                    if (target > 0) assertEquals(c.getStateName(states.get(target / 2)), sim.getPathStates().get(target / 2));
+                }
+            }
+        }
+    }
+
+    @Test
+    void symbolsAheadOfTheCurrentPositionCanBeRead() {
+        DFA dfa = TestAutomata.random(new Random(43), 3, List.of("a", "ab", "abc"), 0);
+        String in = "abc,a,ab".repeat(200);
+        DFASimulation sim = new DFASimulation(dfa, in);
+        assertEquals(600, sim.getLength());
+        assertEquals("ab", sim.getSymbol(599));
+        assertEquals("abc", sim.getSymbol(300));
+        assertEquals(0, sim.getIndex());
+    }
+
+    @Test
+    void supplementaryCodePointsAreOneStep() {
+        DFA dfa = TestAutomata.random(new Random(53), 3, TestAutomata.chars("a😀"), 0);
+        // 😎 no es del alfabeto pero sigue siendo un solo paso, hacia el estado muerto
+        DFASimulation sim = new DFASimulation(dfa, "😀a😎a");
+        assertEquals(4, sim.getLength());
+        assertEquals("😀", sim.getSymbol(0));
+        assertEquals("😎", sim.getSymbol(2));
+        sim.seek(3);
+        assertNull(sim.getPathStates().get(3));
+        assertFalse(sim.isAccepted());
+    }
+
+    @Test
+    void separatorsAreNotSteps() {
+        DFA dfa = TestAutomata.random(new Random(47), 3, TestAutomata.chars("ab"), 0);
+        DFASimulation sim = new DFASimulation(dfa, ",a,,b,");
+        assertEquals(2, sim.getLength());
+        assertEquals("a", sim.getSymbol(0));
+        assertEquals("b", sim.getSymbol(1));
+    }
+}
@@ -0,0 +1,72 @@
+package com.automatas.dfa.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SymbolTokenizerTest {
+    private static final SymbolTokenizer OVERLAP = new SymbolTokenizer(new String[]{"a", "ab", "abc", "b"});
+
+    @Test
+    void longestSymbolWins() {
+        assertEquals(List.of("abc", "ab"), split(OVERLAP, "abcab"));
+        assertEquals(List.of("ab", "ab"), split(OVERLAP, "abab"));
+        assertEquals(List.of("a", "ab"), split(OVERLAP, "aab"));
+        assertEquals(List.of("abc", "a"), split(OVERLAP, "abca"));
+        assertEquals(List.of("b", "abc"), split(OVERLAP, "babc"));
+        assertEquals(3, OVERLAP.getMaxLength());
+    }
+
+    @Test
+    void commaSeparatesOverlappingSymbols() {
+        assertEquals(List.of("a", "b"), split(OVERLAP, "a,b"));
+        assertEquals(List.of("ab", "abc"), split(OVERLAP, ",ab,,abc,"));
+        assertTrue(OVERLAP.isSeparator(','));
+    }
+
+    @Test
+    void commaDeclaredAsSymbolIsNotASeparator() {
+        SymbolTokenizer tk = new SymbolTokenizer(new String[]{"ab", ","});
+        assertFalse(tk.isSeparator(','));
+        assertEquals(List.of("ab", ",", "ab"), split(tk, "ab,ab"));
+    }
+
+    @Test
+    void noBacktrackingIntoShorterSymbols() {
+        // "ab" no es símbolo: se toma "a" y "b" no empieza ninguno, sin retroceder
+        SymbolTokenizer tk = new SymbolTokenizer(new String[]{"a", "abc"});
+        assertEquals(List.of("a", "?b"), split(tk, "ab"));
+        assertEquals(SymbolTokenizer.NO_MATCH, tk.next("xa", 0, 2));
+        // la búsqueda no pasa del final indicado
+        assertEquals("a", symbol(tk, "abc", 0, 2));
+    }
+
+    @Test
+    void supplementarySymbolsAreMatchedWhole() {
+        SymbolTokenizer tk = new SymbolTokenizer(new String[]{"😀", "😀😀", "a"});
+        assertEquals(List.of("😀😀", "a", "😀"), split(tk, "😀😀a😀"));
+    }
+
+    /** Symbol names read in order; text where none starts is one char prefixed with '?'. */
+    private static List<String> split(SymbolTokenizer tk, String input) {
+        List<String> out = new ArrayList<>();
+        for (int i = 0; i < input.length(); ) {
+            if (tk.isSeparator(input.charAt(i))) { i++; continue; }
+            int m = tk.next(input, i, input.length());
+            int n = m == SymbolTokenizer.NO_MATCH ? 1 : tk.lengthOf(m);
+            out.add((m == SymbolTokenizer.NO_MATCH ? "?" : "") + input.substring(i, i + n));
+            i += n;
+        }
+        return out;
+    }
+
+    private static String symbol(SymbolTokenizer tk, String input, int from, int to) {
+        int m = tk.next(input, from, to);
+        return input.substring(from, from + tk.lengthOf(m));
+    }
+}
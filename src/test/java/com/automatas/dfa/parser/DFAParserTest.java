@@ -0,0 +1,101 @@
+package com.automatas.dfa.parser;
+
+import com.automatas.dfa.TestAutomata;
+import com.automatas.dfa.model.DFA;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DFAParserTest {
+    private static final String HEADER = "symbols: a,b\nstates: q0,q1\nstart: q0\nfinals: q1\ntransitions:\n";
+
+    @Test
+    void arrowTableAndRowFormatsDescribeTheSameAutomaton() {
+        DFA arrows = DFAParser.parse(HEADER + "q0,a->q1\nq0,b->q0\nq1,a->q1\nq1,b->q0\n");
+        DFA rows = DFAParser.parse(HEADER + "q0: q1,q0\nq1: q1,q0\n");
+        DFA table = DFAParser.parse(HEADER + "q1,q0\nq1,q0\n");
+        for (String in : List.of("", "a", "b", "ab", "ba", "aab", "bba")) {
+            assertEquals(arrows.accepts(in), rows.accepts(in), in);
+            assertEquals(arrows.accepts(in), table.accepts(in), in);
+        }
+        assertTrue(arrows.accepts("ba"));
+        assertFalse(arrows.accepts("ab"));
+    }
+
+    @Test
+    void trailingCommasAndArrowsAreIgnoredAsBefore() {
+        // el parser original usaba split(",") y split("->"), que descartan los vacíos del final
+        for (String t : List.of("q0,a,->q1", "q0,a,,->q1", "q0,a , ->q1", "q0,a->q1->", "q0,a->q1->->", " q0 , a -> q1 ")) {
+            DFA dfa = DFAParser.parse(HEADER + t + "\n");
+            assertEquals("q1", dfa.getTransitions().get("q0").get("a"), t);
+        }
+    }
+
+    @Test
+    void malformedTransitionsAreStillRejected() {
+        for (String t : List.of("q0->q1", "q0,a,b->q1", "q0,,a->q1", "q0,->q1", ",q0,a->q1",
+                "q0,a->", "q0,a->->", "q0,a->q1->q0", "q0,a->->q1")) {
+            assertThrows(IllegalArgumentException.class, () -> DFAParser.parse(HEADER + t + "\n"), t);
+        }
+    }
+
+    @Test
+    void unknownNamesAndBadRowsAreRejected() {
+        for (String t : List.of("q9,a->q1", "q0,c->q1", "q0,a->q9", "q0: q1", "q1,q0,q1")) {
+            assertThrows(IllegalArgumentException.class, () -> DFAParser.parse(HEADER + t + "\n"), t);
+        }
+        assertThrows(IllegalArgumentException.class, () -> DFAParser.parse("symbols: a\nstates: q0\n"));
+        assertThrows(IllegalArgumentException.class, () -> DFAParser.parse("symbols: a\nstates: q0\nstart: q5\n"));
+        assertThrows(IllegalArgumentException.class, () -> DFAParser.parse("type: pda\n" + HEADER));
+    }
+
+    @Test
+    void toTextRoundTrips() {
+        Random r = new Random(13);
+        List<String> symbols = TestAutomata.chars("ab");
+        for (int round = 0; round < 50; round++) {
+            DFA dfa = TestAutomata.random(r, 1 + r.nextInt(8), symbols, 0.2);
+            DFA back = DFAParser.parse(DFAParser.toText(dfa, List.of()));
+            assertEquals(dfa.getTransitions(), back.getTransitions());
+            assertEquals(dfa.getAcceptStates(), back.getAcceptStates());
+        }
+    }
+
+    @Test
+    void stringsAreSplitByCommas() {
+        DFAParser.ParseResult res = DFAParser.parseAll(HEADER + "q0,a->q1\nstrings:\na,b,a\nab\n");
+        assertEquals(List.of("aba", "ab"), res.getStrings());
+    }
+
+    @Test
+    void onlyEpsilonIsAnEmptyTransition() {
+        String nfa = "type: nfa\nsymbols: eps,b\nstates: p,q\nstart: p\nfinals: q\ntransitions:\n";
+        // "eps" es un símbolo más del alfabeto
+        DFA eps = DFAParser.parseAll(nfa + "p,eps->q\n").getDfa();
+        assertTrue(eps.accepts("eps"));
+        assertFalse(eps.accepts(""));
+        DFA epsilon = DFAParser.parseAll(nfa + "p,ε->q\n").getDfa();
+        assertTrue(epsilon.accepts(""));
+        assertFalse(epsilon.accepts("eps"));
+        assertThrows(IllegalArgumentException.class, () -> DFAParser.parseAll(nfa + "p,->q\n"));
+        assertThrows(IllegalArgumentException.class, () -> DFAParser.parseAll(nfa.replace("eps,b", "ε,b") + "p,b->q\n"));
+    }
+
+    @Test
+    void regexLiteralsOutsideTheBmpAreOneSymbol() {
+        DFA declared = DFAParser.parseAll("symbols: a,😀\nregex: a😀*|\\😀\n").getDfa();
+        assertTrue(declared.accepts("a😀😀"));
+        assertTrue(declared.accepts("😀"));
+        assertFalse(declared.accepts("a😀a"));
+        DFA inferred = DFAParser.parseAll("regex: 😀+\n").getDfa();
+        assertEquals(Set.of("😀"), inferred.getSymbols());
+        assertTrue(inferred.accepts("😀😀"));
+    }
+}